@@ -0,0 +1,219 @@
+package com.anode.storage.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Relays WebSocket-bound events between backend nodes, so a client sees events raised on any node
+ * whichever node it is connected to.
+ *
+ * Producers keep delivering to their own node's clients as before and additionally publish here.
+ * Messages are queued and sent every few milliseconds, packed into as few frames as the transport
+ * allows. Each frame carries its node id and a per-node sequence number: a node drops its own frames
+ * and any frame it has already seen. Received messages go to the handler subscribed to their channel;
+ * channels named after a /topic/ destination are republished to the local broker as they are.
+ */
+@Component
+@Slf4j
+public class ClusterRelay {
+
+    private static final String TOPIC_PREFIX = "/topic/";
+
+    private final ClusterTransport transport;
+    private final ObjectMapper objectMapper;
+    private final SimpMessagingTemplate messaging;
+    private final int capacity;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ConcurrentLinkedQueue<String> outgoing = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<String, Consumer<JsonNode>> handlers = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastSequenceByNode = new ConcurrentHashMap<>();
+
+    private final Counter sent;
+    private final Counter framesSent;
+    private final Counter received;
+    private final Counter duplicates;
+    private final Counter dropped;
+
+    public ClusterRelay(ClusterTransport transport,
+                        ObjectMapper objectMapper,
+                        SimpMessagingTemplate messaging,
+                        MeterRegistry registry,
+                        @Value("${storage.cluster.queue-capacity:100000}") int capacity) {
+        this.transport = transport;
+        this.objectMapper = objectMapper;
+        this.messaging = messaging;
+        this.capacity = capacity;
+        this.sent = registry.counter("cluster.relay.sent");
+        this.framesSent = registry.counter("cluster.relay.frames");
+        this.received = registry.counter("cluster.relay.received");
+        this.duplicates = registry.counter("cluster.relay.duplicates");
+        this.dropped = registry.counter("cluster.relay.dropped");
+        registry.gauge("cluster.relay.queued", queued);
+    }
+
+    @PostConstruct
+    public void start() {
+        transport.listen(this::receive);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Handle messages published on {@code channel} by the other nodes
+     */
+    public void subscribe(String channel, Consumer<JsonNode> handler) {
+        handlers.put(channel, handler);
+    }
+
+    /**
+     * Send to this node's subscribers of a /topic/ destination and have every other node do the same
+     */
+    public void convertAndSend(String destination, Object payload) {
+        messaging.convertAndSend(destination, payload);
+        publish(destination, payload);
+    }
+
+    /**
+     * Queue a message for the other nodes; dropped (and counted) when the queue is full
+     */
+    public void publish(String channel, Object payload) {
+        String message;
+        try {
+            message = "{\"c\":" + objectMapper.writeValueAsString(channel)
+                + ",\"p\":" + objectMapper.writeValueAsString(payload) + "}";
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize cluster message for " + channel, e);
+        }
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        outgoing.add(message);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.cluster.flush-ms:50}")
+    public void flush() {
+        if (outgoing.isEmpty()) {
+            return;
+        }
+        int limit = transport.maxFrameBytes();
+        List<String> batch = new ArrayList<>();
+        int batchBytes = 0;
+        String message;
+        while ((message = outgoing.poll()) != null) {
+            queued.decrementAndGet();
+            int bytes = message.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (bytes + 96 > limit) {
+                log.warn("Dropping cluster message of {} bytes, over the {} byte frame limit", bytes, limit);
+                dropped.increment();
+                continue;
+            }
+            if (batchBytes + bytes + 96 > limit) {
+                send(batch);
+                batch.clear();
+                batchBytes = 0;
+            }
+            batch.add(message);
+            batchBytes += bytes;
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void send(List<String> messages) {
+        String frame = "{\"n\":\"" + nodeId + "\",\"s\":" + sequence.incrementAndGet()
+            + ",\"m\":[" + String.join(",", messages) + "]}";
+        try {
+            transport.broadcast(frame);
+            framesSent.increment();
+            sent.increment(messages.size());
+        } catch (RuntimeException e) {
+            // Live updates are not worth retrying late; clients resync on reconnect
+            log.warn("Cannot broadcast {} cluster messages", messages.size(), e);
+            dropped.increment(messages.size());
+        }
+    }
+
+    void receive(String frame) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(frame);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed cluster frame", e);
+            return;
+        }
+        String origin = root.path("n").asText();
+        if (nodeId.equals(origin)) {
+            return;
+        }
+        long seq = root.path("s").asLong();
+        Long previous = lastSequenceByNode.get(origin);
+        if (previous != null && seq <= previous) {
+            duplicates.increment();
+            return;
+        }
+        lastSequenceByNode.put(origin, seq);
+
+        for (JsonNode message : root.path("m")) {
+            String channel = message.path("c").asText();
+            JsonNode payload = message.path("p");
+            received.increment();
+            try {
+                Consumer<JsonNode> handler = handlers.get(channel);
+                if (handler != null) {
+                    handler.accept(payload);
+                } else if (channel.startsWith(TOPIC_PREFIX)) {
+                    republish(channel, payload);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Cannot handle cluster message on {}", channel, e);
+            }
+        }
+    }
+
+    // The payload is already JSON: pass the bytes through instead of converting them again
+    private void republish(String destination, JsonNode payload) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        headers.setLeaveMutable(true);
+        try {
+            messaging.send(destination, MessageBuilder.createMessage(
+                objectMapper.writeValueAsBytes(payload), headers.getMessageHeaders()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
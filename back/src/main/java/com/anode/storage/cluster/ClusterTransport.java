@@ -0,0 +1,22 @@
+package com.anode.storage.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries opaque text frames between the backend nodes. Every node that called {@link #listen}
+ * receives every broadcast frame, possibly including its own; ClusterRelay filters those.
+ */
+public interface ClusterTransport {
+
+    /**
+     * Largest frame, in UTF-8 bytes, that {@link #broadcast} accepts
+     */
+    int maxFrameBytes();
+
+    void broadcast(String frame);
+
+    /**
+     * Start delivering received frames to {@code receiver}, on a thread of the transport
+     */
+    void listen(Consumer<String> receiver);
+}
@@ -0,0 +1,31 @@
+package com.anode.storage.cluster;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transport for a single JVM: frames are handed synchronously to every listener.
+ * Several ClusterRelay instances sharing one of these behave like nodes of a cluster, which is what tests use.
+ */
+public class InMemoryClusterTransport implements ClusterTransport {
+
+    private final List<Consumer<String>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public int maxFrameBytes() {
+        return 64 * 1024;
+    }
+
+    @Override
+    public void broadcast(String frame) {
+        for (Consumer<String> receiver : receivers) {
+            receiver.accept(frame);
+        }
+    }
+
+    @Override
+    public void listen(Consumer<String> receiver) {
+        receivers.add(receiver);
+    }
+}
@@ -0,0 +1,40 @@
+package com.anode.storage.cluster;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.anode.storage.config.DatabasePlatform;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps a job scheduled on every node from running on more than one at a time.
+ *
+ * The claim is a PostgreSQL advisory lock tied to the caller's transaction: it is released on commit or
+ * rollback, including when the node dies, so there is nothing to clean up.
+ */
+@Component
+@RequiredArgsConstructor
+public class JobLock {
+
+    // First half of the two-part advisory lock key, so job locks stay apart from any others
+    private static final int NAMESPACE = 0x5354_4f52;
+
+    private final JdbcTemplate jdbc;
+    private final DatabasePlatform databasePlatform;
+
+    /**
+     * Claim {@code job} until the current transaction ends. Returns false when another node holds it;
+     * always true on databases without advisory locks (H2 in tests).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryLock(String job) {
+        if (!databasePlatform.isPostgres()) {
+            return true;
+        }
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+            "SELECT pg_try_advisory_xact_lock(?, hashtext(?))", Boolean.class, NAMESPACE, job));
+    }
+}
@@ -0,0 +1,118 @@
+package com.anode.storage.cluster;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transport over PostgreSQL LISTEN/NOTIFY, so a cluster needs nothing besides its database.
+ *
+ * Frames are sent with pg_notify outside any transaction, so they go out immediately. One pooled connection
+ * is kept for LISTEN by a daemon thread, which reconnects with a back-off when the connection is lost.
+ * Frames sent while a node is reconnecting are not redelivered to it.
+ */
+@Slf4j
+public class PostgresClusterTransport implements ClusterTransport {
+
+    static final String CHANNEL = "storage_cluster";
+
+    // NOTIFY payloads must be shorter than 8000 bytes
+    private static final int MAX_FRAME_BYTES = 7900;
+    private static final int POLL_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbc;
+    private volatile boolean stopping;
+    private Thread listener;
+
+    public PostgresClusterTransport(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public int maxFrameBytes() {
+        return MAX_FRAME_BYTES;
+    }
+
+    @Override
+    public void broadcast(String frame) {
+        jdbc.execute("SELECT pg_notify(?, ?)", (PreparedStatementCallback<Void>) statement -> {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, frame);
+            statement.execute();
+            return null;
+        });
+    }
+
+    @Override
+    public synchronized void listen(Consumer<String> receiver) {
+        if (listener != null) {
+            throw new IllegalStateException("Already listening");
+        }
+        listener = new Thread(() -> listenLoop(receiver), "cluster-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        stopping = true;
+        if (listener != null) {
+            listener.join(POLL_MILLIS * 4L);
+        }
+    }
+
+    private void listenLoop(Consumer<String> receiver) {
+        long backoff = 500;
+        while (!stopping) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening for cluster frames on channel {}", CHANNEL);
+                backoff = 500;
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (!stopping) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        try {
+                            receiver.accept(notification.getParameter());
+                        } catch (RuntimeException e) {
+                            log.warn("Cannot handle cluster frame", e);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (stopping) {
+                    return;
+                }
+                log.warn("Cluster listener connection lost, reconnecting in {} ms", backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+}
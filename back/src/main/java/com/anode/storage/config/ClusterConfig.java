@@ -0,0 +1,30 @@
+package com.anode.storage.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.anode.storage.cluster.ClusterTransport;
+import com.anode.storage.cluster.InMemoryClusterTransport;
+import com.anode.storage.cluster.PostgresClusterTransport;
+
+/**
+ * Picks the transport used by ClusterRelay: storage.cluster.transport is POSTGRES, MEMORY,
+ * or AUTO (the default), which means POSTGRES when the database is PostgreSQL.
+ */
+@Configuration
+public class ClusterConfig {
+
+    public enum Transport { AUTO, POSTGRES, MEMORY }
+
+    @Bean
+    public ClusterTransport clusterTransport(@Value("${storage.cluster.transport:AUTO}") Transport transport,
+                                             DataSource dataSource,
+                                             DatabasePlatform databasePlatform) {
+        boolean postgres = transport == Transport.POSTGRES
+            || (transport == Transport.AUTO && databasePlatform.isPostgres());
+        return postgres ? new PostgresClusterTransport(dataSource) : new InMemoryClusterTransport();
+    }
+}
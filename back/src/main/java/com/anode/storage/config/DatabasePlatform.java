@@ -0,0 +1,48 @@
+package com.anode.storage.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.stereotype.Component;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Detects the database product once at startup, for the few queries that need
+ * PostgreSQL-only features and have a portable fallback (H2 in tests).
+ */
+@Component
+@Getter
+public class DatabasePlatform {
+
+    private final String productName;
+    @Getter(AccessLevel.NONE)
+    private final DataSource dataSource;
+
+    public DatabasePlatform(DataSource dataSource) throws SQLException {
+        this.dataSource = dataSource;
+        try (Connection connection = dataSource.getConnection()) {
+            this.productName = connection.getMetaData().getDatabaseProductName();
+        }
+    }
+
+    public boolean isPostgres() {
+        return "PostgreSQL".equalsIgnoreCase(productName);
+    }
+
+    /**
+     * Whether the table has the column, for features that depend on a migration having run
+     */
+    public boolean hasColumn(String table, String column) {
+        try (Connection connection = dataSource.getConnection();
+             ResultSet columns = connection.getMetaData().getColumns(null, null, table, column)) {
+            return columns.next();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read the columns of " + table, e);
+        }
+    }
+}
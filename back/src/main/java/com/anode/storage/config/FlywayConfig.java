@@ -0,0 +1,33 @@
+package com.anode.storage.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Applies the Flyway migrations once Hibernate has updated the schema, instead of before.
+ *
+ * The tables come from the entities (ddl-auto), on a new database as on one that predates the migrations,
+ * so every database is baselined at V5 and gets V6 onwards: the indexes, sequences and other objects
+ * ddl-auto does not create. V1 to V5 describe the older chemical_product schema and are never run.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.flyway", name = "enabled", matchIfMissing = true)
+public class FlywayConfig {
+
+    // Boot migrates before the EntityManagerFactory exists, that is before ddl-auto has built anything
+    @Bean
+    public FlywayMigrationStrategy deferredMigration() {
+        return flyway -> { };
+    }
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public InitializingBean flywayMigration(Flyway flyway) {
+        return flyway::migrate;
+    }
+}
@@ -0,0 +1,32 @@
+package com.anode.storage.controller;
+
+import org.springframework.web.bind.annotation.*;
+
+import com.anode.storage.dto.SegregationAuditStatus;
+import com.anode.storage.service.SegregationAuditService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/audits")
+@RequiredArgsConstructor
+public class AuditController {
+
+    private final SegregationAuditService segregationAudit;
+
+    /**
+     * Progress of the running segregation audit, or the result of the last one
+     */
+    @GetMapping("/segregation")
+    public SegregationAuditStatus segregationStatus() {
+        return segregationAudit.status();
+    }
+
+    /**
+     * Start a segregation audit now; violations are saved as SEGREGATION_VIOLATION notifications
+     */
+    @PostMapping("/segregation")
+    public SegregationAuditStatus startSegregationAudit() {
+        return segregationAudit.start();
+    }
+}
@@ -0,0 +1,23 @@
+package com.anode.storage.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Services reject bad input (malformed cursors, out-of-range parameters, invalid readings) with
+ * IllegalArgumentException; report it to the client as a 400 instead of a 500.
+ */
+@RestControllerAdvice
+@Slf4j
+public class BadRequestAdvice {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail badRequest(IllegalArgumentException e) {
+        log.debug("Rejected request", e);
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+}
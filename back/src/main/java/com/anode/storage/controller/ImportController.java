@@ -0,0 +1,30 @@
+package com.anode.storage.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.web.bind.annotation.*;
+
+import com.anode.storage.dto.DataFormat;
+import com.anode.storage.dto.ImportReport;
+import com.anode.storage.service.BulkImportService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/import")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final BulkImportService importService;
+
+    /**
+     * Streams the request body (CSV with a header line, or NDJSON) into references and batches
+     */
+    @PostMapping(consumes = {"text/csv", "application/x-ndjson", "application/octet-stream"})
+    public ImportReport importRows(
+            @RequestParam(defaultValue = "CSV") DataFormat format,
+            InputStream body) throws IOException {
+        return importService.importRows(body, format);
+    }
+}
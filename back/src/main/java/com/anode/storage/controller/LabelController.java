@@ -0,0 +1,61 @@
+package com.anode.storage.controller;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import com.anode.storage.dto.LabelSheetRequest;
+import com.anode.storage.service.InventoryService;
+import com.anode.storage.service.StorageItemService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/labels")
+@RequiredArgsConstructor
+public class LabelController {
+
+    private final InventoryService inventoryService;
+    private final StorageItemService itemService;
+
+    /**
+     * QR code for an arbitrary payload. The URL is the content, so the image is cached as immutable.
+     */
+    @GetMapping("/qr")
+    public ResponseEntity<byte[]> qr(@RequestParam String code, WebRequest request) throws Exception {
+        String etag = inventoryService.qrEtag(code);
+        CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, "image/png")
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(inventoryService.generateQrCode(code));
+    }
+
+    /**
+     * One PNG sheet with the labels of up to 500 batches, in request order
+     */
+    @PostMapping("/sheet")
+    public ResponseEntity<byte[]> sheet(@RequestBody LabelSheetRequest request) throws Exception {
+        if (request.getItemIds() == null || request.getItemIds().isEmpty()) {
+            throw new IllegalArgumentException("itemIds is required");
+        }
+        // Before the lookup, which puts every id into one IN list
+        if (request.getItemIds().size() > InventoryService.MAX_SHEET_LABELS) {
+            throw new IllegalArgumentException("A label sheet holds at most " + InventoryService.MAX_SHEET_LABELS + " labels");
+        }
+        List<String> codes = itemService.findLabelCodes(request.getItemIds());
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, "image/png")
+                .body(inventoryService.renderLabelSheet(codes, request.getColumns()));
+    }
+}
@@ -0,0 +1,43 @@
+package com.anode.storage.controller;
+
+import org.springframework.web.bind.annotation.*;
+
+import com.anode.storage.dto.BulkMoveRequest;
+import com.anode.storage.dto.RelocationRequest;
+import com.anode.storage.service.LocationService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/locations")
+@RequiredArgsConstructor
+public class LocationController {
+
+    private final LocationService locationService;
+
+    /**
+     * Move many items in one transaction, returns the number of moves applied
+     */
+    @PostMapping("/moves")
+    public int moveItems(@RequestBody BulkMoveRequest request) {
+        return locationService.moveItems(request.getMoves(), request.getUserId(), request.isAcknowledgeConflicts());
+    }
+
+    /**
+     * Move every batch at this location to another one, returns the number of batches moved
+     */
+    @PostMapping("/{id}/relocate")
+    public int relocateLocation(
+            @PathVariable Long id,
+            @RequestParam Long to,
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "false") boolean acknowledgeConflicts) {
+        return locationService.relocateLocation(id, to, userId, acknowledgeConflicts);
+    }
+
+    @PostMapping("/relocate")
+    public int relocateArea(@RequestBody RelocationRequest request) {
+        return locationService.relocateArea(request.getSiteId(), request.getRoom(), request.getCabinet(),
+            request.getToLocationId(), request.getUserId(), request.isAcknowledgeConflicts());
+    }
+}
@@ -0,0 +1,25 @@
+package com.anode.storage.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.anode.storage.dto.ScanResult;
+import com.anode.storage.service.ScanService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/scan")
+@RequiredArgsConstructor
+public class ScanController {
+
+    private final ScanService scanService;
+
+    /**
+     * Resolve a scanned SKU or batch label ({@code PREFIX-id}, as printed by /api/products/{id}/qrcode)
+     */
+    @GetMapping
+    public ResponseEntity<ScanResult> resolve(@RequestParam String code) {
+        return ResponseEntity.of(scanService.resolve(code));
+    }
+}
@@ -0,0 +1,68 @@
+package com.anode.storage.controller;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.anode.storage.dto.SensorHistory;
+import com.anode.storage.dto.SensorReadingInput;
+import com.anode.storage.dto.SensorSeries;
+import com.anode.storage.service.SensorIngestService;
+import com.anode.storage.service.SensorRollupService;
+import com.anode.storage.service.SensorWindowService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/sensors")
+@RequiredArgsConstructor
+public class SensorController {
+
+    private final SensorIngestService ingestService;
+    private final SensorRollupService rollupService;
+    private final SensorWindowService windowService;
+
+    /**
+     * Queue readings for writing. 202 with the number accepted, or 429 when the buffer is full
+     * (nothing from the request is kept then, resend after Retry-After).
+     */
+    @PostMapping("/readings")
+    public ResponseEntity<Integer> ingest(@RequestBody List<SensorReadingInput> readings) {
+        if (!ingestService.offer(readings)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(readings.size());
+    }
+
+    /**
+     * Chart data for one location over [from, to), at most maxPoints buckets (default 1000, max 5000)
+     */
+    @GetMapping("/locations/{locationId}/history")
+    public SensorHistory history(
+            @PathVariable Long locationId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer maxPoints) {
+        return rollupService.history(locationId, from, to, maxPoints);
+    }
+
+    /**
+     * Raw readings of the last few hours for the live dashboards, served from memory within the window
+     */
+    @GetMapping("/locations/{locationId}/recent")
+    public SensorSeries recent(@PathVariable Long locationId,
+                               @RequestParam(defaultValue = "3") int hours) {
+        if (hours < 1 || hours > 24) {
+            throw new IllegalArgumentException("hours must be between 1 and 24");
+        }
+        return windowService.recent(locationId, Duration.ofHours(hours));
+    }
+}
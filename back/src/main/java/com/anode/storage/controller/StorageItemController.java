@@ -1,15 +1,27 @@
 package com.anode.storage.controller;
 
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.anode.storage.dto.CursorPage;
+import com.anode.storage.dto.DataFormat;
+import com.anode.storage.dto.DisposalEntry;
+import com.anode.storage.dto.ItemSort;
+import com.anode.storage.dto.StockLogEntry;
+import com.anode.storage.dto.StorageItemDetail;
+import com.anode.storage.dto.StorageItemSummary;
+import com.anode.storage.entity.core.ItemStatus;
 import com.anode.storage.entity.core.ProductType;
 import com.anode.storage.entity.core.StorageItem;
+import com.anode.storage.service.InventoryExportService;
 import com.anode.storage.service.InventoryService;
 import com.anode.storage.service.StorageItemService;
 
@@ -22,21 +34,82 @@ public class StorageItemController {
 
     private final StorageItemService service;
     private final InventoryService inventoryService;
-    @Autowired
-    private SimpMessagingTemplate messaging;
-
+    private final InventoryExportService exportService;
 
     @GetMapping
-    public List<StorageItem> findAll(@RequestParam(required = false) ProductType productType) {
-        if (productType != null) {
-            return service.findByProductType(productType);
-        }
-        return service.findAll();
+    public CursorPage<StorageItemSummary> findAll(
+            @RequestParam(required = false) ProductType productType,
+            @RequestParam(defaultValue = "ID") ItemSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return service.findPage(productType, sort, cursor, size).map(StorageItemSummary::from);
+    }
+
+    @GetMapping("/low-stock")
+    public CursorPage<StorageItemSummary> lowStock(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return service.findLowStockItems(cursor, size).map(StorageItemSummary::from);
+    }
+
+    @GetMapping("/expired")
+    public CursorPage<StorageItemSummary> expired(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return service.findExpiredItems(cursor, size).map(StorageItemSummary::from);
+    }
+
+    @GetMapping("/expiring")
+    public CursorPage<StorageItemSummary> expiring(
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return service.findItemsExpiringSoon(days, cursor, size).map(StorageItemSummary::from);
+    }
+
+    /**
+     * Stream the inventory as NDJSON or CSV, optionally gzipped, in constant memory
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "NDJSON") DataFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) ProductType productType,
+            @RequestParam(required = false) Long siteId,
+            @RequestParam(required = false) ItemStatus status) {
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream zipped = new GZIPOutputStream(out, 64 * 1024);
+                exportService.export(productType, siteId, status, format, zipped);
+                zipped.finish();
+            } else {
+                exportService.export(productType, siteId, status, format, out);
+            }
+        };
+        String filename = "inventory." + format.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, gzip ? "application/gzip" : format.getContentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
-    public StorageItem findById(@PathVariable Long id) {
-        return service.find(id);
+    public StorageItemDetail findById(@PathVariable Long id) {
+        return StorageItemDetail.from(service.findDetail(id));
+    }
+
+    @GetMapping("/{id}/stock-logs")
+    public CursorPage<StockLogEntry> stockLogs(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return service.findStockLogs(id, cursor, size).map(StockLogEntry::from);
+    }
+
+    @GetMapping("/{id}/disposals")
+    public List<DisposalEntry> disposals(@PathVariable Long id) {
+        return service.findDisposals(id).stream().map(DisposalEntry::from).toList();
     }
 
     @PostMapping
@@ -62,20 +135,24 @@ public class StorageItemController {
         return ResponseEntity.ok(service.checkItemLocation(itemId, locationId));
     }
 
+    /**
+     * Label of one batch. The payload can change if the item is moved to another reference,
+     * so clients revalidate; an unchanged label costs a 304 and no rendering.
+     */
     @GetMapping("/{id}/qrcode")
-    public ResponseEntity<byte[]> qr(@PathVariable Long id) throws Exception {
+    public ResponseEntity<byte[]> qr(@PathVariable Long id, WebRequest request) throws Exception {
         StorageItem item = service.find(id);
-        String qrData = item.getProductType().getPrefix() + "-" + item.getId();
+        String qrData = item.getProductType().labelCode(item.getId());
+        String etag = inventoryService.qrEtag(qrData);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         byte[] qr = inventoryService.generateQrCode(qrData);
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_TYPE, "image/png")
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
                 .body(qr);
     }
-
-
-    public void sendLowStockAlert(StorageItem item) {
-        messaging.convertAndSend("/topic/low-stock", item);
-    }
-
 }
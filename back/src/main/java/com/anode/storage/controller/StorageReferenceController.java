@@ -0,0 +1,58 @@
+package com.anode.storage.controller;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.*;
+
+import com.anode.storage.dto.CursorPage;
+import com.anode.storage.entity.core.ReferenceStockSummary;
+import com.anode.storage.repository.ReferenceSearchRow;
+import com.anode.storage.service.ReferenceSearchService;
+import com.anode.storage.service.StockSummaryService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/references")
+@RequiredArgsConstructor
+public class StorageReferenceController {
+
+    private final StockSummaryService stockSummaryService;
+    private final ReferenceSearchService searchService;
+
+    /**
+     * Type-ahead catalog search over name, SKU, CAS number, manufacturer/model and description
+     */
+    @GetMapping("/search")
+    public CursorPage<ReferenceSearchRow> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return searchService.search(q, cursor, size);
+    }
+
+    @GetMapping("/{id}/stock")
+    public ReferenceStockSummary stock(@PathVariable Long id) {
+        return stockSummaryService.find(id);
+    }
+
+    @GetMapping("/low-stock")
+    public CursorPage<ReferenceStockSummary> lowStock(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return stockSummaryService.findLowStock(cursor, size);
+    }
+
+    /**
+     * Drift repair: recompute every stock summary from the batches
+     */
+    @PostMapping("/stock/rebuild")
+    public int rebuildAll() {
+        return stockSummaryService.rebuildAll();
+    }
+
+    @PostMapping("/{id}/stock/rebuild")
+    public int rebuild(@PathVariable Long id) {
+        return stockSummaryService.rebuild(List.of(id));
+    }
+}
@@ -0,0 +1,45 @@
+package com.anode.storage.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.*;
+
+import com.anode.storage.entity.safety.IncompatibilityRule;
+import com.anode.storage.service.StorageRuleService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/rules")
+@RequiredArgsConstructor
+public class StorageRuleController {
+
+    private final StorageRuleService ruleService;
+
+    @PostMapping
+    public IncompatibilityRule create(
+            @RequestParam Long hazardA,
+            @RequestParam Long hazardB,
+            @RequestParam(required = false) String reason) {
+        return ruleService.addRule(hazardA, hazardB, reason);
+    }
+
+    @DeleteMapping("/{id}")
+    public void delete(@PathVariable Long id) {
+        ruleService.deleteRule(id);
+    }
+
+    @GetMapping("/check")
+    public String check(@RequestParam int hazardA, @RequestParam int hazardB) {
+        return ruleService.checkCompatibility(hazardA, hazardB).orElse("OK");
+    }
+
+    /**
+     * Check one hazard class against a set of classes, returns the conflicting ones with their reasons
+     */
+    @GetMapping("/conflicts")
+    public Map<Integer, String> conflicts(@RequestParam int hazard, @RequestParam List<Integer> against) {
+        return ruleService.findConflicts(hazard, against);
+    }
+}
@@ -0,0 +1,19 @@
+package com.anode.storage.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BulkMoveRequest {
+    private Long userId;
+    private List<StockMove> moves = new ArrayList<>();
+
+    /**
+     * Apply moves that break hazard segregation instead of rejecting them; the conflicts are logged
+     */
+    private boolean acknowledgeConflicts;
+}
@@ -0,0 +1,38 @@
+package com.anode.storage.dto;
+
+import java.time.LocalDateTime;
+
+import com.anode.storage.entity.safety.DisposalRequest;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One disposal request raised against a batch
+ */
+@Getter
+@Setter
+public class DisposalEntry {
+
+    private Long id;
+    private Double amount;
+    private String reason;
+    private String status;
+    private LocalDateTime requestedDate;
+    private Long requestedById;
+    private LocalDateTime approvedDate;
+    private Long approvedById;
+
+    public static DisposalEntry from(DisposalRequest request) {
+        DisposalEntry dto = new DisposalEntry();
+        dto.setId(request.getId());
+        dto.setAmount(request.getAmount());
+        dto.setReason(request.getReason());
+        dto.setStatus(request.getStatus());
+        dto.setRequestedDate(request.getRequestedDate());
+        dto.setRequestedById(request.getRequestedBy() != null ? request.getRequestedBy().getId() : null);
+        dto.setApprovedDate(request.getApprovedDate());
+        dto.setApprovedById(request.getApprovedBy() != null ? request.getApprovedBy().getId() : null);
+        return dto;
+    }
+}
@@ -0,0 +1,14 @@
+package com.anode.storage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ImportRejection {
+    /**
+     * 1-based data row (CSV record after the header, or NDJSON line)
+     */
+    private long row;
+    private String reason;
+}
@@ -0,0 +1,21 @@
+package com.anode.storage.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Outcome of a bulk import. Only the first rejections are listed, {@code rejected} counts all of them.
+ */
+@Getter
+@Setter
+public class ImportReport {
+    private long accepted;
+    private long rejected;
+    private long referencesCreated;
+    private long itemsCreated;
+    private long durationMs;
+    private List<ImportRejection> rejections = new ArrayList<>();
+}
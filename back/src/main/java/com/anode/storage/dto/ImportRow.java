@@ -0,0 +1,59 @@
+package com.anode.storage.dto;
+
+import java.time.LocalDate;
+
+import com.anode.storage.entity.core.ItemStatus;
+import com.anode.storage.entity.core.ProductType;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One line of a bulk import: a catalog entry keyed by SKU, plus an optional batch of it.
+ * CSV headers and NDJSON keys use these property names.
+ */
+@Getter
+@Setter
+public class ImportRow {
+
+    // ========== REFERENCE (matched on sku, created when missing) ==========
+
+    private String sku;
+    private String name;
+    private ProductType productType;
+    private String description;
+    private String casNumber;
+    private String formula;
+    private String manufacturer;
+    private String modelNumber;
+
+    /**
+     * Supplier name
+     */
+    private String supplier;
+
+    /**
+     * Hazard class GHS code
+     */
+    private String hazardClass;
+
+    private Double defaultMinStock;
+    private Double defaultMaxStock;
+    private String defaultUnit;
+    private Integer shelfLifeDays;
+
+    // ========== BATCH (created when batchNumber or quantity is set) ==========
+
+    private String batchNumber;
+    private String lotNumber;
+    private LocalDate receivedDate;
+    private LocalDate expirationDate;
+    private Double quantity;
+    private String unit;
+    private Long locationId;
+    private ItemStatus status;
+
+    public boolean hasBatch() {
+        return batchNumber != null || quantity != null;
+    }
+}
@@ -0,0 +1,39 @@
+package com.anode.storage.dto;
+
+import com.anode.storage.entity.core.ItemStatus;
+import com.anode.storage.entity.core.StorageItem;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Current state of one batch after a committed change, as pushed on /topic/inventory/{siteId}.
+ * previousLocationId is set when the change moved the batch, deleted when it no longer exists.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryChange {
+    private Long itemId;
+    private Long referenceId;
+    private Long locationId;
+    private Long previousLocationId;
+    private Double quantity;
+    private ItemStatus status;
+    private boolean deleted;
+
+    public static InventoryChange of(StorageItem item, Long previousLocationId, boolean deleted) {
+        Long locationId = item.getLocation() != null ? item.getLocation().getId() : null;
+        return new InventoryChange(
+            item.getId(),
+            item.getReference() != null ? item.getReference().getId() : null,
+            locationId,
+            previousLocationId != null && !previousLocationId.equals(locationId) ? previousLocationId : null,
+            item.getInventoryInfo() != null ? item.getInventoryInfo().getQuantity() : null,
+            item.getStatus(),
+            deleted);
+    }
+}
@@ -0,0 +1,17 @@
+package com.anode.storage.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One frame of the inventory feed. resync means changes were dropped for this subscriber
+ * and the client should reload its view before applying further changes.
+ */
+@Getter
+@AllArgsConstructor
+public class InventoryFeedMessage {
+    private boolean resync;
+    private List<InventoryChange> changes;
+}
@@ -0,0 +1,17 @@
+package com.anode.storage.dto;
+
+/**
+ * Sort orders supported by the keyset-paginated item listings
+ */
+public enum ItemSort {
+    /**
+     * Ascending by id (insertion order)
+     */
+    ID,
+
+    /**
+     * Ascending by batch expiration date, then id.
+     * Batches without an expiration date come last.
+     */
+    EXPIRATION
+}
@@ -0,0 +1,13 @@
+package com.anode.storage.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class LabelSheetRequest {
+    private List<Long> itemIds;
+    private int columns = 4;
+}
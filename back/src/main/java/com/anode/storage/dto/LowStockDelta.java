@@ -0,0 +1,20 @@
+package com.anode.storage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Pushed on /topic/low-stock when a reference enters or leaves low stock
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockDelta {
+    private Long referenceId;
+    private boolean lowStock;
+    private double quantity;
+    private Double minStock;
+}
@@ -0,0 +1,24 @@
+package com.anode.storage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A batch whose hazard class is incompatible with one already stored at its destination.
+ * {@code itemId} is null when a whole location is being relocated.
+ */
+@Getter
+@AllArgsConstructor
+public class PlacementConflict {
+    private Long itemId;
+    private Long locationId;
+    private Long hazardClassId;
+    private Long conflictingHazardClassId;
+    private String reason;
+
+    @Override
+    public String toString() {
+        return "hazard class " + hazardClassId + " vs " + conflictingHazardClassId
+            + " at location " + locationId + (reason == null || reason.isEmpty() ? "" : ": " + reason);
+    }
+}
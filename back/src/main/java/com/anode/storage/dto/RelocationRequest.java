@@ -0,0 +1,18 @@
+package com.anode.storage.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Relocate every batch in a room, or in one cabinet of it when cabinet is set
+ */
+@Getter
+@Setter
+public class RelocationRequest {
+    private Long siteId;
+    private String room;
+    private String cabinet;
+    private Long toLocationId;
+    private Long userId;
+    private boolean acknowledgeConflicts;
+}
@@ -0,0 +1,39 @@
+package com.anode.storage.dto;
+
+import com.anode.storage.entity.core.ProductType;
+import com.anode.storage.entity.core.StorageItem;
+import com.anode.storage.entity.core.StorageReference;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * What a scanned code resolves to. Identity fields only (no quantity, status or location),
+ * so it can be cached and only goes stale when the item or reference itself is replaced.
+ */
+@Getter
+@AllArgsConstructor
+public class ScanResult {
+
+    public enum Kind { REFERENCE, ITEM }
+
+    private final Kind kind;
+    private final Long referenceId;
+    private final Long itemId;
+    private final String sku;
+    private final String name;
+    private final ProductType productType;
+    private final String batchNumber;
+
+    public static ScanResult of(StorageReference reference) {
+        return new ScanResult(Kind.REFERENCE, reference.getId(), null,
+            reference.getSku(), reference.getName(), reference.getProductType(), null);
+    }
+
+    public static ScanResult of(StorageItem item) {
+        StorageReference reference = item.getReference();
+        return new ScanResult(Kind.ITEM, reference.getId(), item.getId(),
+            reference.getSku(), reference.getName(), reference.getProductType(),
+            item.getBatchInfo() != null ? item.getBatchInfo().getBatchNumber() : null);
+    }
+}
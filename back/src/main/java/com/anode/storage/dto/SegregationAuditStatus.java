@@ -0,0 +1,27 @@
+package com.anode.storage.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Progress of the running segregation audit, or the outcome of the last one
+ */
+@Getter
+@AllArgsConstructor
+public class SegregationAuditStatus {
+
+    public enum State { IDLE, LOADING, EVALUATING, SAVING, DONE, FAILED }
+
+    private State state;
+    private LocalDateTime startedAt;
+    private long pairsRead;
+    private long locationsTotal;
+    private long locationsEvaluated;
+    private long violations;
+    private long loadMs;
+    private long evaluateMs;
+    private long saveMs;
+    private String error;
+}
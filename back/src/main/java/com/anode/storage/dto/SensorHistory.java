@@ -0,0 +1,23 @@
+package com.anode.storage.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.anode.storage.entity.location.RollupResolution;
+import com.anode.storage.entity.location.SensorRollup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Sensor chart data of one location at the resolution chosen for the requested window
+ */
+@Getter
+@AllArgsConstructor
+public class SensorHistory {
+    private Long locationId;
+    private RollupResolution resolution;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<SensorRollup> buckets;
+}
@@ -0,0 +1,17 @@
+package com.anode.storage.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One raw sensor reading, as charted by the cabinet dashboards
+ */
+@Getter
+@AllArgsConstructor
+public class SensorPoint {
+    private LocalDateTime timestamp;
+    private Double temperature;
+    private Double humidity;
+}
@@ -0,0 +1,22 @@
+package com.anode.storage.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One reading as posted by a cabinet sensor. A missing timestamp means "now".
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SensorReadingInput {
+    private Long locationId;
+    private Double temperature;
+    private Double humidity;
+    private LocalDateTime timestamp;
+}
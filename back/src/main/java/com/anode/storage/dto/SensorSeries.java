@@ -0,0 +1,19 @@
+package com.anode.storage.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Raw readings of one location over [from, to), oldest first
+ */
+@Getter
+@AllArgsConstructor
+public class SensorSeries {
+    private Long locationId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<SensorPoint> points;
+}
@@ -0,0 +1,37 @@
+package com.anode.storage.dto;
+
+import java.time.LocalDateTime;
+
+import com.anode.storage.entity.safety.StockLog;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One row of a batch's movement history.
+ * Related entities are exposed by id only so no proxy is initialized.
+ */
+@Getter
+@Setter
+public class StockLogEntry {
+
+    private Long id;
+    private LocalDateTime timestamp;
+    private Double amount;
+    private Long fromLocationId;
+    private Long toLocationId;
+    private Long userId;
+    private String note;
+
+    public static StockLogEntry from(StockLog log) {
+        StockLogEntry dto = new StockLogEntry();
+        dto.setId(log.getId());
+        dto.setTimestamp(log.getTimestamp());
+        dto.setAmount(log.getAmount());
+        dto.setFromLocationId(log.getFromLocation() != null ? log.getFromLocation().getId() : null);
+        dto.setToLocationId(log.getToLocation() != null ? log.getToLocation().getId() : null);
+        dto.setUserId(log.getUser() != null ? log.getUser().getId() : null);
+        dto.setNote(log.getNote());
+        return dto;
+    }
+}
@@ -0,0 +1,20 @@
+package com.anode.storage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One (item, from, to, amount) tuple of a stock movement
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMove {
+    private Long itemId;
+    private Long fromLocationId;
+    private Long toLocationId;
+    private Double amount;
+}
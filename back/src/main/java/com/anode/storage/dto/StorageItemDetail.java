@@ -0,0 +1,92 @@
+package com.anode.storage.dto;
+
+import java.time.LocalDate;
+
+import com.anode.storage.entity.core.BatchInfo;
+import com.anode.storage.entity.core.InventoryInfo;
+import com.anode.storage.entity.core.StorageItem;
+import com.anode.storage.entity.core.StorageReference;
+import com.anode.storage.entity.location.Location;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Detail view of a batch. Movement and disposal history are served
+ * by their own endpoints instead of being embedded here.
+ */
+@Getter
+@Setter
+public class StorageItemDetail extends StorageItemSummary {
+
+    private Long version;
+    private LocalDate receivedDate;
+    private LocalDate manufactureDate;
+    private String purchaseOrderRef;
+    private Double minStock;
+    private Double maxStock;
+    private String notes;
+
+    private String description;
+    private String casNumber;
+    private String formula;
+    private String manufacturer;
+    private String modelNumber;
+    private Double defaultMinStock;
+    private Long supplierId;
+    private String supplierName;
+    private Long hazardClassId;
+    private String hazardClassName;
+
+    private Long siteId;
+    private String siteName;
+
+    public static StorageItemDetail from(StorageItem item) {
+        StorageItemDetail dto = new StorageItemDetail();
+        fill(dto, item);
+        dto.setVersion(item.getVersion());
+        dto.setNotes(item.getNotes());
+
+        BatchInfo batch = item.getBatchInfo();
+        if (batch != null) {
+            dto.setReceivedDate(batch.getReceivedDate());
+            dto.setManufactureDate(batch.getManufactureDate());
+            dto.setPurchaseOrderRef(batch.getPurchaseOrderRef());
+        }
+
+        InventoryInfo inventory = item.getInventoryInfo();
+        if (inventory != null) {
+            dto.setMinStock(inventory.getMinStock());
+            dto.setMaxStock(inventory.getMaxStock());
+        }
+
+        StorageReference reference = item.getReference();
+        if (reference != null) {
+            dto.setDescription(reference.getDescription());
+            dto.setDefaultMinStock(reference.getDefaultMinStock());
+            if (reference.getChemicalSpec() != null) {
+                dto.setCasNumber(reference.getChemicalSpec().getCasNumber());
+                dto.setFormula(reference.getChemicalSpec().getFormula());
+            }
+            if (reference.getHardwareSpec() != null) {
+                dto.setManufacturer(reference.getHardwareSpec().getManufacturer());
+                dto.setModelNumber(reference.getHardwareSpec().getModelNumber());
+            }
+            if (reference.getSupplier() != null) {
+                dto.setSupplierId(reference.getSupplier().getId());
+                dto.setSupplierName(reference.getSupplier().getName());
+            }
+            if (reference.getHazardClass() != null) {
+                dto.setHazardClassId(reference.getHazardClass().getId());
+                dto.setHazardClassName(reference.getHazardClass().getName());
+            }
+        }
+
+        Location location = item.getLocation();
+        if (location != null && location.getSite() != null) {
+            dto.setSiteId(location.getSite().getId());
+            dto.setSiteName(location.getSite().getName());
+        }
+        return dto;
+    }
+}
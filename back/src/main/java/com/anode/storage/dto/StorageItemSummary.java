@@ -0,0 +1,91 @@
+package com.anode.storage.dto;
+
+import java.time.LocalDate;
+
+import com.anode.storage.entity.core.BatchInfo;
+import com.anode.storage.entity.core.InventoryInfo;
+import com.anode.storage.entity.core.ItemStatus;
+import com.anode.storage.entity.core.ProductType;
+import com.anode.storage.entity.core.StorageItem;
+import com.anode.storage.entity.core.StorageReference;
+import com.anode.storage.entity.location.Location;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * List view of a batch: only columns of the item, its reference and its location,
+ * which the list queries fetch in one statement
+ */
+@Getter
+@Setter
+public class StorageItemSummary {
+
+    private Long id;
+    private Long referenceId;
+    private String name;
+    private String sku;
+    private ProductType productType;
+    private String batchNumber;
+    private String lotNumber;
+    private LocalDate expirationDate;
+    private ItemStatus status;
+    private Double quantity;
+    private String unit;
+    private Long locationId;
+    private String locationLabel;
+
+    public static StorageItemSummary from(StorageItem item) {
+        StorageItemSummary dto = new StorageItemSummary();
+        fill(dto, item);
+        return dto;
+    }
+
+    static void fill(StorageItemSummary dto, StorageItem item) {
+        dto.setId(item.getId());
+        dto.setStatus(item.getStatus());
+
+        StorageReference reference = item.getReference();
+        if (reference != null) {
+            dto.setReferenceId(reference.getId());
+            dto.setName(reference.getName());
+            dto.setSku(reference.getSku());
+            dto.setProductType(reference.getProductType());
+        }
+
+        BatchInfo batch = item.getBatchInfo();
+        if (batch != null) {
+            dto.setBatchNumber(batch.getBatchNumber());
+            dto.setLotNumber(batch.getLotNumber());
+            dto.setExpirationDate(batch.getExpirationDate());
+        }
+
+        InventoryInfo inventory = item.getInventoryInfo();
+        if (inventory != null) {
+            dto.setQuantity(inventory.getQuantity());
+            dto.setUnit(inventory.getUnit());
+        }
+
+        Location location = item.getLocation();
+        if (location != null) {
+            dto.setLocationId(location.getId());
+            dto.setLocationLabel(label(location));
+        }
+    }
+
+    /**
+     * Human readable "room / cabinet / shelf" label
+     */
+    static String label(Location location) {
+        StringBuilder label = new StringBuilder();
+        for (String part : new String[] {location.getRoom(), location.getCabinet(), location.getShelf()}) {
+            if (part != null && !part.isBlank()) {
+                if (label.length() > 0) {
+                    label.append(" / ");
+                }
+                label.append(part);
+            }
+        }
+        return label.toString();
+    }
+}
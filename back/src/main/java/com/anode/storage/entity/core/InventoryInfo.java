@@ -1,7 +1,5 @@
 package com.anode.storage.entity.core;
 
-import java.time.LocalDate;
-
 import jakarta.persistence.Embeddable;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -22,7 +20,6 @@ public class InventoryInfo {
     private String unit;
     private Double minStock;
     private Double maxStock;
-    private LocalDate expirationDate;
 
     /**
      * Check if stock is below minimum threshold
@@ -31,24 +28,6 @@ public class InventoryInfo {
         return minStock != null && quantity != null && quantity < minStock;
     }
 
-    /**
-     * Check if item is expired
-     */
-    public boolean isExpired() {
-        return expirationDate != null && expirationDate.isBefore(LocalDate.now());
-    }
-
-    /**
-     * Check if item is expiring soon (within days)
-     */
-    public boolean isExpiringSoon(int days) {
-        if (expirationDate == null) {
-            return false;
-        }
-        LocalDate threshold = LocalDate.now().plusDays(days);
-        return expirationDate.isBefore(threshold) && !isExpired();
-    }
-
     /**
      * Add to quantity
      */
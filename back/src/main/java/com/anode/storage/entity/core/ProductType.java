@@ -27,4 +27,11 @@ public enum ProductType {
     public String getDisplayName() {
         return displayName;
     }
+
+    /**
+     * Payload printed on a batch label, e.g. CHEM-42
+     */
+    public String labelCode(Long itemId) {
+        return prefix + "-" + itemId;
+    }
 }
@@ -0,0 +1,81 @@
+package com.anode.storage.entity.core;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Running stock totals for one StorageReference, kept in step with its batches
+ * inside the same transaction as every stock mutation.
+ *
+ * Catalog and low-stock views read this single row instead of loading all
+ * batches through StorageReference.getTotalQuantity().
+ * Drift (e.g. manual SQL edits, changed reference minimums) is repaired by
+ * StockSummaryService.rebuild.
+ */
+@Entity
+@Table(name = "reference_stock_summary")
+@Getter
+@Setter
+public class ReferenceStockSummary {
+
+    /**
+     * Same value as the StorageReference id
+     */
+    @Id
+    @Column(name = "reference_id")
+    private Long referenceId;
+
+    /**
+     * Quantity held in AVAILABLE batches
+     */
+    @Column(nullable = false)
+    private Double availableQuantity = 0.0;
+
+    /**
+     * Quantity held in RESERVED batches
+     */
+    @Column(nullable = false)
+    private Double reservedQuantity = 0.0;
+
+    /**
+     * Number of batches, whatever their status
+     */
+    @Column(nullable = false)
+    private Integer batchCount = 0;
+
+    /**
+     * Number of AVAILABLE batches
+     */
+    @Column(nullable = false)
+    private Integer availableBatchCount = 0;
+
+    /**
+     * Copy of StorageReference.defaultMinStock taken at the last rebuild
+     */
+    private Double minStock;
+
+    /**
+     * available + reserved quantity is below minStock
+     */
+    @Column(nullable = false)
+    private Boolean lowStock = false;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Same figure as StorageReference.getTotalQuantity()
+     */
+    public double getTotalQuantity() {
+        return availableQuantity + reservedQuantity;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
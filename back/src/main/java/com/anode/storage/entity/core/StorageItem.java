@@ -7,6 +7,7 @@ import com.anode.storage.entity.location.Location;
 import com.anode.storage.entity.procurement.PurchaseItem;
 import com.anode.storage.entity.safety.DisposalRequest;
 import com.anode.storage.entity.safety.StockLog;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import jakarta.persistence.*;
@@ -33,6 +34,13 @@ public class StorageItem {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * Optimistic lock version, also bumped by the atomic stock updates
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // ========== REFERENCE TO MASTER DATA ==========
 
     /**
@@ -83,24 +91,24 @@ public class StorageItem {
     // ========== AUDIT & TRACKING ==========
 
     /**
-     * Stock movement history for this batch
+     * Stock movement history for this batch (served by /api/products/{id}/stock-logs)
      */
-    @OneToMany(mappedBy = "item", cascade = CascadeType.ALL)
-    @JsonIgnoreProperties("item")
+    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<StockLog> stockLogs = new ArrayList<>();
 
     /**
      * Purchase items referencing this batch
      */
-    @OneToMany(mappedBy = "item", cascade = CascadeType.ALL)
-    @JsonIgnoreProperties("item")
+    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<PurchaseItem> purchaseItems = new ArrayList<>();
 
     /**
-     * Disposal requests for this batch
+     * Disposal requests for this batch (served by /api/products/{id}/disposals)
      */
-    @OneToMany(mappedBy = "item", cascade = CascadeType.ALL)
-    @JsonIgnoreProperties("item")
+    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<DisposalRequest> disposalRequests = new ArrayList<>();
 
     // ========== BUSINESS LOGIC ==========
@@ -94,7 +94,7 @@ public class StorageItemBuilder {
     }
 
     public StorageItemBuilder expirationDate(LocalDate expirationDate) {
-        item.getInventoryInfo().setExpirationDate(expirationDate);
+        item.getBatchInfo().setExpirationDate(expirationDate);
         return this;
     }
 
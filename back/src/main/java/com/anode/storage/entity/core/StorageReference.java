@@ -80,7 +80,7 @@ public class StorageReference {
      */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "supplier_id")
-    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "items", "purchaseOrders"})
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "references", "purchaseOrders"})
     private Supplier supplier;
 
     /**
@@ -88,7 +88,7 @@ public class StorageReference {
      */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "hazard_class_id")
-    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "items"})
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "references"})
     private HazardClass hazardClass;
 
     // ========== INVENTORY DEFAULTS ==========
@@ -138,7 +138,8 @@ public class StorageReference {
     // ========== BUSINESS LOGIC ==========
 
     /**
-     * Get total quantity across all batches
+     * Get total quantity across all batches.
+     * Loads every batch; list views should read ReferenceStockSummary instead.
      */
     public double getTotalQuantity() {
         return items.stream()
@@ -165,7 +166,7 @@ public class StorageReference {
     }
 
     /**
-     * Check if total stock is below minimum
+     * Check if total stock is below minimum (see ReferenceStockSummary.lowStock for the maintained flag)
      */
     public boolean isLowStock() {
         return defaultMinStock != null && getTotalQuantity() < defaultMinStock;
@@ -23,8 +23,9 @@ public class Supplier {
     private String contact;
     private String phone;
 
-    @OneToMany(mappedBy = "supplierEntity", cascade = CascadeType.ALL)
-    private List<StorageItem> items = new ArrayList<>();
+    // Not cascaded: references outlive a supplier being removed from the catalog
+    @OneToMany(mappedBy = "supplier")
+    private List<StorageReference> references = new ArrayList<>();
 
     @OneToMany(mappedBy = "supplier", cascade = CascadeType.ALL)
     private List<PurchaseOrder> purchaseOrders = new ArrayList<>();
@@ -0,0 +1,61 @@
+package com.anode.storage.entity.location;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Aggregated SensorReading values of one location over one time bucket.
+ * Sums and counts are kept instead of averages so buckets can be merged incrementally.
+ */
+@Entity
+@Table(name = "sensor_rollup")
+@IdClass(SensorRollup.Key.class)
+@Getter
+@Setter
+public class SensorRollup {
+
+    @Id
+    @Column(name = "location_id")
+    private Long locationId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private RollupResolution resolution;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    private Double temperatureMin;
+    private Double temperatureMax;
+    private Double temperatureSum;
+    private long temperatureCount;
+
+    private Double humidityMin;
+    private Double humidityMax;
+    private Double humiditySum;
+    private long humidityCount;
+
+    public Double getTemperatureAvg() {
+        return temperatureCount == 0 ? null : temperatureSum / temperatureCount;
+    }
+
+    public Double getHumidityAvg() {
+        return humidityCount == 0 ? null : humiditySum / humidityCount;
+    }
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long locationId;
+        private RollupResolution resolution;
+        private LocalDateTime bucketStart;
+    }
+}
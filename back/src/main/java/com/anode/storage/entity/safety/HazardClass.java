@@ -3,7 +3,7 @@ package com.anode.storage.entity.safety;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.anode.storage.entity.core.StorageItem;
+import com.anode.storage.entity.core.StorageReference;
 
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -27,6 +27,6 @@ public class HazardClass {
     @Column(columnDefinition = "TEXT")
     private String description;
 
-    @OneToMany(mappedBy = "hazardClassEntity", cascade = CascadeType.ALL)
-    private List<StorageItem> items = new ArrayList<>();
+    @OneToMany(mappedBy = "hazardClass")
+    private List<StorageReference> references = new ArrayList<>();
 }
@@ -18,12 +18,12 @@ public class IncompatibilityRule {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "hazard_class_a")
-    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "references"})
     private HazardClass hazardClassAEntity;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "hazard_class_b")
-    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "references"})
     private HazardClass hazardClassBEntity;
 
     // Keep as Integer for backward compatibility
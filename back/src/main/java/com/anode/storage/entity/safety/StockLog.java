@@ -19,8 +19,12 @@ import lombok.Setter;
 @NoArgsConstructor
 public class StockLog {
 
+    /**
+     * Pooled sequence rather than IDENTITY so Hibernate can batch inserts
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_log_seq")
+    @SequenceGenerator(name = "stock_log_seq", sequenceName = "stock_log_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
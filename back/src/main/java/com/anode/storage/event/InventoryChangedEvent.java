@@ -0,0 +1,18 @@
+package com.anode.storage.event;
+
+import java.util.List;
+
+import com.anode.storage.dto.InventoryChange;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Quantity, status or location changes of batches, published inside the mutating transaction.
+ * A bulk operation publishes one event for all of its batches.
+ */
+@Getter
+@AllArgsConstructor
+public class InventoryChangedEvent {
+    private final List<InventoryChange> changes;
+}
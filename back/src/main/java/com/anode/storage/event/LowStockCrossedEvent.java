@@ -0,0 +1,17 @@
+package com.anode.storage.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A stock mutation moved a reference's available + reserved quantity across its minimum, in either direction.
+ * Published inside the mutating transaction.
+ */
+@Getter
+@AllArgsConstructor
+public class LowStockCrossedEvent {
+    private final Long referenceId;
+    private final boolean lowStock;
+    private final double quantity;
+    private final Double minStock;
+}
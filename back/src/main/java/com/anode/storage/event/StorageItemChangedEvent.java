@@ -0,0 +1,20 @@
+package com.anode.storage.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published inside the transaction that creates, replaces or deletes a StorageItem,
+ * or that marks it EXPIRED once its expiration date has passed.
+ * Listeners that keep derived state should use {@code @TransactionalEventListener} so they only see committed changes.
+ */
+@Getter
+@AllArgsConstructor
+public class StorageItemChangedEvent {
+
+    public enum Change { CREATED, UPDATED, DELETED, EXPIRED }
+
+    private final Long itemId;
+    private final Long referenceId;
+    private final Change change;
+}
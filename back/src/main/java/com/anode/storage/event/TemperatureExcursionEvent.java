@@ -0,0 +1,24 @@
+package com.anode.storage.event;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A location has stayed outside its temperature range for longer than the sustain time.
+ * Published once per excursion; the next one needs the temperature to come back well inside first.
+ */
+@Getter
+@AllArgsConstructor
+public class TemperatureExcursionEvent {
+
+    public enum Direction { ABOVE_MAX, BELOW_MIN }
+
+    private final Long locationId;
+    private final Direction direction;
+    private final double temperature;
+    private final Double limit;
+    private final LocalDateTime since;
+    private final LocalDateTime detectedAt;
+}
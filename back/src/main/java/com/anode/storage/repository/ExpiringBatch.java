@@ -0,0 +1,19 @@
+package com.anode.storage.repository;
+
+import java.time.LocalDate;
+
+import com.anode.storage.entity.core.ProductType;
+
+/**
+ * What an expiration digest lists about one batch, read with its reference and location in one row
+ */
+public interface ExpiringBatch {
+    Long getId();
+    String getName();
+    ProductType getProductType();
+    LocalDate getExpirationDate();
+    Long getSiteId();
+    String getRoom();
+    String getCabinet();
+    String getShelf();
+}
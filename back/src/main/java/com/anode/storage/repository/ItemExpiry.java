@@ -0,0 +1,14 @@
+package com.anode.storage.repository;
+
+import java.time.LocalDate;
+
+import com.anode.storage.entity.core.ItemStatus;
+
+/**
+ * What the expiry scheduler needs to place a batch on its timing wheel
+ */
+public interface ItemExpiry {
+    Long getId();
+    LocalDate getExpirationDate();
+    ItemStatus getStatus();
+}
@@ -0,0 +1,11 @@
+package com.anode.storage.repository;
+
+import com.anode.storage.entity.core.ProductType;
+
+/**
+ * What a batch label needs: the item id and the type prefix
+ */
+public interface ItemLabel {
+    Long getId();
+    ProductType getProductType();
+}
@@ -0,0 +1,9 @@
+package com.anode.storage.repository;
+
+/**
+ * One hazard class present at one location
+ */
+public interface LocationHazard {
+    Long getLocationId();
+    Long getHazardClassId();
+}
@@ -3,6 +3,8 @@ package com.anode.storage.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.anode.storage.entity.location.Location;
 
@@ -11,4 +13,19 @@ import com.anode.storage.entity.location.Location;
 public interface LocationRepository extends JpaRepository<Location, Long> {
     List<Location> findBySiteId(Long siteId);
     List<Location> findByRoom(String room);
+
+    @Query("SELECT l.id FROM Location l")
+    List<Long> findAllIds();
+
+    @Query("SELECT l.id AS locationId, l.site.id AS siteId FROM Location l")
+    List<LocationSite> findSites();
+
+    /**
+     * Ids of every location in a room, or in one cabinet of that room when cabinet is given
+     */
+    @Query("SELECT l.id FROM Location l WHERE l.site.id = :siteId AND l.room = :room " +
+           "AND (:cabinet IS NULL OR l.cabinet = :cabinet)")
+    List<Long> findIdsByArea(@Param("siteId") Long siteId,
+                             @Param("room") String room,
+                             @Param("cabinet") String cabinet);
 }
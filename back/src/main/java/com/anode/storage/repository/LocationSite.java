@@ -0,0 +1,9 @@
+package com.anode.storage.repository;
+
+/**
+ * The site a location belongs to
+ */
+public interface LocationSite {
+    Long getLocationId();
+    Long getSiteId();
+}
@@ -0,0 +1,16 @@
+package com.anode.storage.repository;
+
+import com.anode.storage.entity.core.ProductType;
+
+/**
+ * Catalog search hit: the fields a type-ahead list shows, without loading the entity
+ */
+public interface ReferenceSearchRow {
+    Long getId();
+    String getName();
+    String getSku();
+    ProductType getProductType();
+    String getCasNumber();
+    String getManufacturer();
+    String getModelNumber();
+}
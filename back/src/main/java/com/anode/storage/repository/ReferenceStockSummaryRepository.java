@@ -0,0 +1,141 @@
+package com.anode.storage.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.anode.storage.entity.core.ReferenceStockSummary;
+
+public interface ReferenceStockSummaryRepository extends JpaRepository<ReferenceStockSummary, Long> {
+
+    String SUMMARY_COLUMNS =
+        "(reference_id, available_quantity, reserved_quantity, batch_count, available_batch_count, " +
+        " min_stock, low_stock, updated_at) ";
+
+    /**
+     * Summaries computed from storage_items, one row per reference (including references without batches)
+     */
+    String SUMMARY_SELECT =
+        "SELECT r.id AS reference_id, " +
+        "  COALESCE(SUM(CASE WHEN i.status = 'AVAILABLE' THEN COALESCE(i.quantity, 0) ELSE 0 END), 0) AS available_quantity, " +
+        "  COALESCE(SUM(CASE WHEN i.status = 'RESERVED' THEN COALESCE(i.quantity, 0) ELSE 0 END), 0) AS reserved_quantity, " +
+        "  COUNT(i.id) AS batch_count, " +
+        "  COALESCE(SUM(CASE WHEN i.status = 'AVAILABLE' THEN 1 ELSE 0 END), 0) AS available_batch_count, " +
+        "  r.default_min_stock AS min_stock, " +
+        "  CASE WHEN r.default_min_stock IS NOT NULL AND COALESCE(SUM(CASE WHEN i.status IN ('AVAILABLE', 'RESERVED') " +
+        "       THEN COALESCE(i.quantity, 0) ELSE 0 END), 0) < r.default_min_stock THEN TRUE ELSE FALSE END AS low_stock, " +
+        "  CURRENT_TIMESTAMP AS updated_at " +
+        "FROM storage_references r LEFT JOIN storage_items i ON i.reference_id = r.id";
+
+    String SUMMARY_GROUP = " GROUP BY r.id, r.default_min_stock";
+
+    String SUMMARY_SELECT_IN = SUMMARY_SELECT + " WHERE r.id IN (:referenceIds)" + SUMMARY_GROUP;
+
+    String SUMMARY_SELECT_ALL = SUMMARY_SELECT + SUMMARY_GROUP;
+
+    String SUMMARY_INSERT = "INSERT INTO reference_stock_summary " + SUMMARY_COLUMNS;
+
+    String SUMMARY_UPSERT_SET =
+        " ON CONFLICT (reference_id) DO UPDATE SET " +
+        "available_quantity = EXCLUDED.available_quantity, reserved_quantity = EXCLUDED.reserved_quantity, " +
+        "batch_count = EXCLUDED.batch_count, available_batch_count = EXCLUDED.available_batch_count, " +
+        "min_stock = EXCLUDED.min_stock, low_stock = EXCLUDED.low_stock, updated_at = EXCLUDED.updated_at";
+
+    // Standard MERGE for databases without ON CONFLICT (H2 in tests): USING (select) ON ... WHEN ...
+    String SUMMARY_MERGE_USING = "MERGE INTO reference_stock_summary t USING (";
+
+    String SUMMARY_MERGE_ON = ") s ON (t.reference_id = s.reference_id) ";
+
+    String SUMMARY_MERGE_UPDATE =
+        "WHEN MATCHED THEN UPDATE SET " +
+        "available_quantity = s.available_quantity, reserved_quantity = s.reserved_quantity, " +
+        "batch_count = s.batch_count, available_batch_count = s.available_batch_count, " +
+        "min_stock = s.min_stock, low_stock = s.low_stock, updated_at = s.updated_at ";
+
+    String SUMMARY_MERGE_INSERT =
+        "WHEN NOT MATCHED THEN INSERT " + SUMMARY_COLUMNS +
+        "VALUES (s.reference_id, s.available_quantity, s.reserved_quantity, s.batch_count, " +
+        "s.available_batch_count, s.min_stock, s.low_stock, s.updated_at)";
+
+    @Query("SELECT s FROM ReferenceStockSummary s WHERE s.lowStock = true AND s.referenceId > :afterId " +
+           "ORDER BY s.referenceId")
+    List<ReferenceStockSummary> findLowStockAfter(@Param("afterId") long afterId, Pageable page);
+
+    /**
+     * Apply a delta in place. Every right-hand side reads the pre-update row,
+     * so the low-stock flag adds the deltas itself.
+     */
+    @Modifying
+    @Query("UPDATE ReferenceStockSummary s SET " +
+           "s.availableQuantity = s.availableQuantity + :available, " +
+           "s.reservedQuantity = s.reservedQuantity + :reserved, " +
+           "s.batchCount = s.batchCount + :batches, " +
+           "s.availableBatchCount = s.availableBatchCount + :availableBatches, " +
+           "s.lowStock = CASE WHEN s.minStock IS NOT NULL " +
+           "    AND s.availableQuantity + s.reservedQuantity + :available + :reserved < s.minStock " +
+           "    THEN true ELSE false END, " +
+           "s.updatedAt = :now " +
+           "WHERE s.referenceId = :referenceId")
+    int applyDelta(@Param("referenceId") Long referenceId,
+                   @Param("available") double available,
+                   @Param("reserved") double reserved,
+                   @Param("batches") int batches,
+                   @Param("availableBatches") int availableBatches,
+                   @Param("now") LocalDateTime now);
+
+    @Query("SELECT s.availableQuantity AS availableQuantity, s.reservedQuantity AS reservedQuantity, " +
+           "s.minStock AS minStock, s.lowStock AS lowStock " +
+           "FROM ReferenceStockSummary s WHERE s.referenceId = :referenceId")
+    SummaryLevel findLevel(@Param("referenceId") Long referenceId);
+
+    // Per-reference writes are upserts, so they never fail on a row another transaction just inserted
+
+    /**
+     * Insert the summaries computed from items, leaving rows that already exist untouched.
+     * Returns the number of rows inserted.
+     */
+    @Modifying
+    @Query(value = SUMMARY_INSERT + SUMMARY_SELECT_IN + " ON CONFLICT (reference_id) DO NOTHING",
+           nativeQuery = true)
+    int insertFromItemsIfAbsent(@Param("referenceIds") Collection<Long> referenceIds);
+
+    @Modifying
+    @Query(value = SUMMARY_MERGE_USING + SUMMARY_SELECT_IN + SUMMARY_MERGE_ON + SUMMARY_MERGE_INSERT, nativeQuery = true)
+    int mergeFromItemsIfAbsent(@Param("referenceIds") Collection<Long> referenceIds);
+
+    /**
+     * Insert or overwrite the summaries computed from items
+     */
+    @Modifying
+    @Query(value = SUMMARY_INSERT + SUMMARY_SELECT_IN + SUMMARY_UPSERT_SET, nativeQuery = true)
+    int upsertFromItems(@Param("referenceIds") Collection<Long> referenceIds);
+
+    @Modifying
+    @Query(value = SUMMARY_MERGE_USING + SUMMARY_SELECT_IN + SUMMARY_MERGE_ON + SUMMARY_MERGE_UPDATE + SUMMARY_MERGE_INSERT,
+           nativeQuery = true)
+    int mergeFromItems(@Param("referenceIds") Collection<Long> referenceIds);
+
+    /**
+     * Insert or overwrite the summaries of every reference
+     */
+    @Modifying
+    @Query(value = SUMMARY_INSERT + SUMMARY_SELECT_ALL + SUMMARY_UPSERT_SET, nativeQuery = true)
+    int upsertAllFromItems();
+
+    @Modifying
+    @Query(value = SUMMARY_MERGE_USING + SUMMARY_SELECT_ALL + SUMMARY_MERGE_ON + SUMMARY_MERGE_UPDATE + SUMMARY_MERGE_INSERT,
+           nativeQuery = true)
+    int mergeAllFromItems();
+
+    // Left behind where the table was created without the cascading foreign key
+    @Modifying
+    @Query("DELETE FROM ReferenceStockSummary s WHERE NOT EXISTS " +
+           "(SELECT r.id FROM StorageReference r WHERE r.id = s.referenceId)")
+    int deleteOrphans();
+}
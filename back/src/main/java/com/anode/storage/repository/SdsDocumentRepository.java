@@ -8,6 +8,6 @@ import com.anode.storage.entity.safety.SdsDocument;
 
 
 public interface SdsDocumentRepository extends JpaRepository<SdsDocument, Long> {
-    List<SdsDocument> findByProductId(Long productId);
+    List<SdsDocument> findByReferenceId(Long referenceId);
     List<SdsDocument> findByParsed(Boolean parsed);
 }
@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.anode.storage.entity.location.SensorReading;
 
@@ -12,4 +14,13 @@ public interface SensorReadingRepository extends JpaRepository<SensorReading, Lo
     List<SensorReading> findByLocationId(Long locationId);
     List<SensorReading> findByLocationIdAndTimestampBetween(
         Long locationId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Readings in [from, to), oldest first
+     */
+    @Query("SELECT r FROM SensorReading r WHERE r.location.id = :locationId " +
+           "AND r.timestamp >= :from AND r.timestamp < :to ORDER BY r.timestamp")
+    List<SensorReading> findRange(@Param("locationId") Long locationId,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,24 @@
+package com.anode.storage.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.anode.storage.entity.location.RollupResolution;
+import com.anode.storage.entity.location.SensorRollup;
+
+public interface SensorRollupRepository extends JpaRepository<SensorRollup, SensorRollup.Key> {
+
+    /**
+     * Buckets starting in [from, to), oldest first. Served by the primary key.
+     */
+    @Query("SELECT r FROM SensorRollup r WHERE r.locationId = :locationId AND r.resolution = :resolution " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<SensorRollup> findBuckets(@Param("locationId") Long locationId,
+                                   @Param("resolution") RollupResolution resolution,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
+}
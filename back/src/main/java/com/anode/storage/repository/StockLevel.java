@@ -0,0 +1,14 @@
+package com.anode.storage.repository;
+
+import com.anode.storage.entity.core.ItemStatus;
+
+/**
+ * Stock-relevant columns of one batch, read right after an atomic quantity update or before a relocation
+ */
+public interface StockLevel {
+    Long getId();
+    Long getReferenceId();
+    Long getLocationId();
+    ItemStatus getStatus();
+    Double getQuantity();
+}
@@ -1,9 +1,38 @@
 package com.anode.storage.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.anode.storage.entity.core.User;
+import com.anode.storage.entity.location.Location;
 import com.anode.storage.entity.safety.StockLog;
 
 
 public interface StockLogRepository extends JpaRepository<StockLog, Long> {
+
+    // Newest first, keyed on id so each page is one index range scan
+    @Query("SELECT l FROM StockLog l WHERE l.product.id = :itemId AND l.id < :beforeId ORDER BY l.id DESC")
+    List<StockLog> findByItemBefore(@Param("itemId") Long itemId,
+                                    @Param("beforeId") long beforeId,
+                                    Pageable page);
+
+    /**
+     * One log row per batch, from its current location, written with a single INSERT ... SELECT.
+     * Hibernate allocates the ids from the pooled sequence inside the statement. The timestamp is taken
+     * in SQL: Hibernate 6.3 renders a bound LocalDateTime here as an unfilled {@code timestamp($p)} cast.
+     */
+    @Modifying
+    @Query("INSERT INTO StockLog (product, fromLocation, toLocation, amount, user, note, timestamp) " +
+           "SELECT i, i.location, :to, i.inventoryInfo.quantity, :user, :note, local datetime " +
+           "FROM StorageItem i WHERE i.id IN :ids")
+    int insertRelocationLogs(@Param("ids") Collection<Long> ids,
+                             @Param("to") Location to,
+                             @Param("user") User user,
+                             @Param("note") String note);
 }
@@ -1,20 +1,226 @@
 package com.anode.storage.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.anode.storage.entity.core.ItemStatus;
 import com.anode.storage.entity.core.ProductType;
 import com.anode.storage.entity.core.StorageItem;
+import com.anode.storage.entity.location.Location;
 
-public interface StorageItemRepository extends JpaRepository<StorageItem, Long> {
-    List<StorageItem> findByExpirationDateBetween(LocalDate start, LocalDate end);
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
-    List<StorageItem> findByProductType(ProductType productType);
+public interface StorageItemRepository extends JpaRepository<StorageItem, Long> {
+    @Query("SELECT i FROM StorageItem i JOIN FETCH i.reference " +
+           "WHERE i.batchInfo.expirationDate BETWEEN :start AND :end")
+    List<StorageItem> findByExpirationDateBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
 
+    @Query("SELECT i FROM StorageItem i JOIN FETCH i.reference r " +
+           "WHERE r.productType = :productType AND i.batchInfo.expirationDate BETWEEN :start AND :end")
     List<StorageItem> findByProductTypeAndExpirationDateBetween(
-        ProductType productType, LocalDate start, LocalDate end);
+        @Param("productType") ProductType productType, @Param("start") LocalDate start, @Param("end") LocalDate end);
 
     List<StorageItem> findByLocationId(Long locationId);
+
+    @EntityGraph(attributePaths = {
+        "reference", "reference.supplier", "reference.hazardClass", "location", "location.site"})
+    @Query("SELECT i FROM StorageItem i WHERE i.id = :id")
+    Optional<StorageItem> findDetailById(@Param("id") Long id);
+
+    @Query("SELECT i FROM StorageItem i JOIN FETCH i.reference WHERE i.id = :id")
+    Optional<StorageItem> findWithReferenceById(@Param("id") Long id);
+
+    @Query("SELECT i FROM StorageItem i JOIN FETCH i.reference WHERE i.id IN :ids")
+    List<StorageItem> findAllWithReferenceById(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Distinct hazard classes of the batches physically present at each location, one row per (location, class).
+     * Disposed and empty batches no longer occupy the shelf.
+     */
+    @Query("SELECT DISTINCT i.location.id AS locationId, r.hazardClass.id AS hazardClassId " +
+           "FROM StorageItem i JOIN i.reference r " +
+           "WHERE i.location.id IN :locationIds AND r.hazardClass IS NOT NULL " +
+           "AND i.status NOT IN (com.anode.storage.entity.core.ItemStatus.DISPOSED, " +
+           "com.anode.storage.entity.core.ItemStatus.EMPTY)")
+    List<LocationHazard> findHazardClassesAt(@Param("locationIds") Collection<Long> locationIds);
+
+    @Query("SELECT i.id AS id, r.productType AS productType FROM StorageItem i JOIN i.reference r WHERE i.id IN :ids")
+    List<ItemLabel> findLabels(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Whole-inventory cursor for exports. Read-only and fetched in chunks, must be consumed inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT i FROM StorageItem i JOIN FETCH i.reference r LEFT JOIN FETCH i.location l " +
+           "WHERE (:productType IS NULL OR r.productType = :productType) " +
+           "AND (:siteId IS NULL OR l.site.id = :siteId) " +
+           "AND (:status IS NULL OR i.status = :status) " +
+           "ORDER BY i.id")
+    Stream<StorageItem> streamForExport(@Param("productType") ProductType productType,
+                                        @Param("siteId") Long siteId,
+                                        @Param("status") ItemStatus status);
+
+    // Atomic stock mutations: the delta is applied by the database, so concurrent callers never lose updates
+
+    @Modifying
+    @Query("UPDATE StorageItem i SET " +
+           "i.inventoryInfo.quantity = COALESCE(i.inventoryInfo.quantity, 0) + :amount, " +
+           "i.version = COALESCE(i.version, 0) + 1 " +
+           "WHERE i.id = :id")
+    int incrementQuantity(@Param("id") Long id, @Param("amount") double amount);
+
+    @Modifying
+    @Query("UPDATE StorageItem i SET " +
+           "i.inventoryInfo.quantity = i.inventoryInfo.quantity - :amount, " +
+           "i.version = COALESCE(i.version, 0) + 1 " +
+           "WHERE i.id = :id AND i.inventoryInfo.quantity >= :amount")
+    int decrementQuantity(@Param("id") Long id, @Param("amount") double amount);
+
+    @Modifying
+    @Query("UPDATE StorageItem i SET " +
+           "i.status = com.anode.storage.entity.core.ItemStatus.EMPTY, " +
+           "i.version = COALESCE(i.version, 0) + 1 " +
+           "WHERE i.id = :id AND i.inventoryInfo.quantity <= 0 " +
+           "AND i.status <> com.anode.storage.entity.core.ItemStatus.EMPTY")
+    int markEmptyIfDepleted(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StorageItem i SET i.location = :to, i.version = COALESCE(i.version, 0) + 1 " +
+           "WHERE i.id IN :ids")
+    int relocate(@Param("ids") Collection<Long> ids, @Param("to") Location to);
+
+    String STOCK_LEVEL_SELECT =
+        "SELECT i.id AS id, i.reference.id AS referenceId, i.location.id AS locationId, " +
+        "i.status AS status, i.inventoryInfo.quantity AS quantity FROM StorageItem i ";
+
+    @Query(STOCK_LEVEL_SELECT + "WHERE i.id = :id")
+    Optional<StockLevel> findStockLevel(@Param("id") Long id);
+
+    // Relocation locks what it moves first, so the logs and the UPDATE cover exactly these batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(STOCK_LEVEL_SELECT + "WHERE i.location.id IN :locationIds")
+    List<StockLevel> lockStockLevelsAt(@Param("locationIds") Collection<Long> locationIds);
+
+    // Expiry transitions: batches are read and locked first, so the UPDATE changes exactly the rows that were read
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(STOCK_LEVEL_SELECT + "WHERE i.id IN :ids " +
+           "AND i.status = com.anode.storage.entity.core.ItemStatus.AVAILABLE " +
+           "AND i.batchInfo.expirationDate < :today")
+    List<StockLevel> lockExpirable(@Param("ids") Collection<Long> ids, @Param("today") LocalDate today);
+
+    @Modifying
+    @Query("UPDATE StorageItem i SET " +
+           "i.status = com.anode.storage.entity.core.ItemStatus.EXPIRED, " +
+           "i.version = COALESCE(i.version, 0) + 1 " +
+           "WHERE i.id IN :ids " +
+           "AND i.status = com.anode.storage.entity.core.ItemStatus.AVAILABLE " +
+           "AND i.batchInfo.expirationDate < :today")
+    int markExpired(@Param("ids") Collection<Long> ids, @Param("today") LocalDate today);
+
+    /**
+     * Keyset page of available batches expiring before {@code to}, including those already past their date
+     */
+    @Query("SELECT i.id AS id, i.batchInfo.expirationDate AS expirationDate, i.status AS status " +
+           "FROM StorageItem i " +
+           "WHERE i.status = com.anode.storage.entity.core.ItemStatus.AVAILABLE " +
+           "AND i.batchInfo.expirationDate < :to AND i.id > :afterId " +
+           "ORDER BY i.id")
+    List<ItemExpiry> findExpiryAfterId(@Param("to") LocalDate to, @Param("afterId") long afterId, Pageable page);
+
+    @Query("SELECT i.id AS id, i.batchInfo.expirationDate AS expirationDate, i.status AS status " +
+           "FROM StorageItem i WHERE i.id IN :ids")
+    List<ItemExpiry> findExpiry(@Param("ids") Collection<Long> ids);
+
+    // Keyset pages: the Pageable only carries the page size, the position comes from the cursor
+
+    @Query("SELECT i FROM StorageItem i JOIN FETCH i.reference r LEFT JOIN FETCH i.location " +
+           "WHERE i.id > :afterId " +
+           "AND (:productType IS NULL OR r.productType = :productType) " +
+           "ORDER BY i.id")
+    List<StorageItem> findPageAfterId(@Param("productType") ProductType productType,
+                                      @Param("afterId") long afterId,
+                                      Pageable page);
+
+    @Query("SELECT i FROM StorageItem i JOIN FETCH i.reference r LEFT JOIN FETCH i.location " +
+           "WHERE (i.batchInfo.expirationDate > :afterDate " +
+           "OR (i.batchInfo.expirationDate = :afterDate AND i.id > :afterId)) " +
+           "AND (:productType IS NULL OR r.productType = :productType) " +
+           "ORDER BY i.batchInfo.expirationDate, i.id")
+    List<StorageItem> findPageAfterExpiration(@Param("productType") ProductType productType,
+                                              @Param("afterDate") LocalDate afterDate,
+                                              @Param("afterId") long afterId,
+                                              Pageable page);
+
+    @Query("SELECT i FROM StorageItem i JOIN FETCH i.reference r LEFT JOIN FETCH i.location " +
+           "WHERE i.batchInfo.expirationDate IS NULL AND i.id > :afterId " +
+           "AND (:productType IS NULL OR r.productType = :productType) " +
+           "ORDER BY i.id")
+    List<StorageItem> findUndatedPageAfterId(@Param("productType") ProductType productType,
+                                             @Param("afterId") long afterId,
+                                             Pageable page);
+
+    // Filtered keyset pages, evaluated in the database instead of over findAll()
+
+    @Query("SELECT i FROM StorageItem i JOIN FETCH i.reference r LEFT JOIN FETCH i.location " +
+           "WHERE r.defaultMinStock IS NOT NULL AND i.inventoryInfo.quantity < r.defaultMinStock " +
+           "AND i.id > :afterId " +
+           "ORDER BY i.id")
+    List<StorageItem> findLowStockAfterId(@Param("afterId") long afterId, Pageable page);
+
+    // The expiry scheduler keeps the status column current, so the date is not re-checked here
+    @Query("SELECT i FROM StorageItem i JOIN FETCH i.reference LEFT JOIN FETCH i.location " +
+           "WHERE i.status = com.anode.storage.entity.core.ItemStatus.EXPIRED " +
+           "AND i.id > :afterId " +
+           "ORDER BY i.id")
+    List<StorageItem> findExpiredAfterId(@Param("afterId") long afterId, Pageable page);
+
+    @Query("SELECT i FROM StorageItem i JOIN FETCH i.reference LEFT JOIN FETCH i.location " +
+           "WHERE i.batchInfo.expirationDate >= :today AND i.batchInfo.expirationDate < :threshold " +
+           "AND (i.batchInfo.expirationDate > :afterDate " +
+           "OR (i.batchInfo.expirationDate = :afterDate AND i.id > :afterId)) " +
+           "ORDER BY i.batchInfo.expirationDate, i.id")
+    List<StorageItem> findExpiringAfter(@Param("today") LocalDate today,
+                                        @Param("threshold") LocalDate threshold,
+                                        @Param("afterDate") LocalDate afterDate,
+                                        @Param("afterId") long afterId,
+                                        Pageable page);
+
+    /**
+     * Keyset page of live batches expiring in [today, threshold), soonest first.
+     * Reads reference and location columns through joins instead of loading the entities.
+     */
+    @Query("SELECT i.id AS id, r.name AS name, r.productType AS productType, " +
+           "i.batchInfo.expirationDate AS expirationDate, l.site.id AS siteId, " +
+           "l.room AS room, l.cabinet AS cabinet, l.shelf AS shelf " +
+           "FROM StorageItem i JOIN i.reference r LEFT JOIN i.location l " +
+           "WHERE i.batchInfo.expirationDate >= :today AND i.batchInfo.expirationDate < :threshold " +
+           "AND (i.batchInfo.expirationDate > :afterDate " +
+           "OR (i.batchInfo.expirationDate = :afterDate AND i.id > :afterId)) " +
+           "AND i.status NOT IN (com.anode.storage.entity.core.ItemStatus.DISPOSED, " +
+           "com.anode.storage.entity.core.ItemStatus.EMPTY) " +
+           "ORDER BY i.batchInfo.expirationDate, i.id")
+    List<ExpiringBatch> findExpiringBatchesAfter(@Param("today") LocalDate today,
+                                                 @Param("threshold") LocalDate threshold,
+                                                 @Param("afterDate") LocalDate afterDate,
+                                                 @Param("afterId") long afterId,
+                                                 Pageable page);
 }
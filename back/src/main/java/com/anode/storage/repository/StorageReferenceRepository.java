@@ -3,8 +3,10 @@ package com.anode.storage.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.anode.storage.entity.core.ProductType;
 import com.anode.storage.entity.core.StorageReference;
@@ -17,8 +19,6 @@ public interface StorageReferenceRepository extends JpaRepository<StorageReferen
 
     Optional<StorageReference> findBySku(String sku);
 
-    List<StorageReference> findByNameContainingIgnoreCase(String name);
-
     List<StorageReference> findBySupplierId(Long supplierId);
 
     @Query("SELECT r FROM StorageReference r WHERE r.active = true")
@@ -29,4 +29,40 @@ public interface StorageReferenceRepository extends JpaRepository<StorageReferen
 
     @Query("SELECT r FROM StorageReference r WHERE r.productType = ?1 AND r.active = true")
     List<StorageReference> findActiveByType(ProductType productType);
+
+    /**
+     * Ranked search over the generated search_text / search_vector columns (V12), PostgreSQL only.
+     * Substring matches go through the trigram index, word matches (including description) through the tsvector.
+     * Exact SKU or CAS hits come first, then the best trigram/text rank.
+     */
+    @Query(value = "SELECT r.id AS id, r.name AS name, r.sku AS sku, r.product_type AS productType, " +
+                   "r.cas_number AS casNumber, r.manufacturer AS manufacturer, r.model_number AS modelNumber " +
+                   "FROM storage_references r " +
+                   "WHERE r.active AND (r.search_text LIKE :pattern ESCAPE '\\' " +
+                   "OR r.search_vector @@ plainto_tsquery('simple', :query)) " +
+                   "ORDER BY (lower(r.sku) = :query OR lower(r.cas_number) = :query) DESC, " +
+                   "GREATEST(word_similarity(:query, r.search_text), " +
+                   "ts_rank(r.search_vector, plainto_tsquery('simple', :query))) DESC, r.id " +
+                   "LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<ReferenceSearchRow> searchRanked(@Param("query") String query,
+                                          @Param("pattern") String pattern,
+                                          @Param("limit") int limit,
+                                          @Param("offset") int offset);
+
+    /**
+     * Portable fallback for databases without pg_trgm (H2 in tests): unindexed LIKE over the same fields
+     */
+    @Query("SELECT r.id AS id, r.name AS name, r.sku AS sku, r.productType AS productType, " +
+           "r.chemicalSpec.casNumber AS casNumber, r.hardwareSpec.manufacturer AS manufacturer, " +
+           "r.hardwareSpec.modelNumber AS modelNumber " +
+           "FROM StorageReference r " +
+           "WHERE r.active = true AND (LOWER(r.name) LIKE :pattern ESCAPE '\\' " +
+           "OR LOWER(r.sku) LIKE :pattern ESCAPE '\\' " +
+           "OR LOWER(r.chemicalSpec.casNumber) LIKE :pattern ESCAPE '\\' " +
+           "OR LOWER(r.hardwareSpec.manufacturer) LIKE :pattern ESCAPE '\\' " +
+           "OR LOWER(r.hardwareSpec.modelNumber) LIKE :pattern ESCAPE '\\' " +
+           "OR LOWER(r.description) LIKE :pattern ESCAPE '\\') " +
+           "ORDER BY r.name, r.id")
+    List<ReferenceSearchRow> searchPortable(@Param("pattern") String pattern, Pageable pageable);
 }
@@ -0,0 +1,11 @@
+package com.anode.storage.repository;
+
+/**
+ * Low-stock inputs of one ReferenceStockSummary, read right after a delta is applied
+ */
+public interface SummaryLevel {
+    Double getAvailableQuantity();
+    Double getReservedQuantity();
+    Double getMinStock();
+    Boolean getLowStock();
+}
@@ -0,0 +1,387 @@
+package com.anode.storage.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.anode.storage.dto.DataFormat;
+import com.anode.storage.dto.ImportRejection;
+import com.anode.storage.dto.ImportReport;
+import com.anode.storage.dto.ImportRow;
+import com.anode.storage.entity.core.ItemStatus;
+import com.anode.storage.entity.core.Supplier;
+import com.anode.storage.entity.safety.HazardClass;
+import com.anode.storage.repository.HazardClassRepository;
+import com.anode.storage.repository.LocationRepository;
+import com.anode.storage.repository.SupplierRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk import of StorageReference and StorageItem rows from CSV or NDJSON.
+ *
+ * The input is parsed as a stream and cut into chunks. Each chunk is validated in parallel
+ * against in-memory lookup maps (supplier by name, hazard class by GHS code, location ids),
+ * then written with JDBC batch inserts and committed on its own, so a bad chunk never
+ * rolls back the ones before it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkImportService {
+
+    static final int CHUNK_SIZE = 5000;
+    static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    private static final String INSERT_REFERENCE =
+        "INSERT INTO storage_references (name, product_type, description, sku, cas_number, formula, " +
+        "manufacturer, model_number, supplier_id, hazard_class_id, default_min_stock, default_max_stock, " +
+        "default_unit, shelf_life_days, active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE)";
+
+    private static final String INSERT_ITEM =
+        "INSERT INTO storage_items (reference_id, batch_number, lot_number, received_date, expiration_date, " +
+        "status, quantity, unit, location_id, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final SupplierRepository supplierRepo;
+    private final HazardClassRepository hazardClassRepo;
+    private final LocationRepository locationRepo;
+    private final StockSummaryService stockSummaryService;
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ImportReport importRows(InputStream in, DataFormat format) throws IOException {
+        long start = System.currentTimeMillis();
+        Lookups lookups = loadLookups();
+        ImportReport report = new ImportReport();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        RowSource source = format == DataFormat.CSV ? csvSource(reader) : ndjsonSource(reader);
+
+        List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        ParsedRow row;
+        while ((row = source.next()) != null) {
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                processChunk(chunk, lookups, report);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, lookups, report);
+        }
+
+        report.setDurationMs(System.currentTimeMillis() - start);
+        log.info("Imported {} rows ({} references, {} items), rejected {} in {} ms",
+            report.getAccepted(), report.getReferencesCreated(), report.getItemsCreated(),
+            report.getRejected(), report.getDurationMs());
+        return report;
+    }
+
+    // ========== PARSING ==========
+
+    private interface RowSource {
+        ParsedRow next() throws IOException;
+    }
+
+    private RowSource csvSource(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return () -> null;
+        }
+        long[] rowNumber = {0};
+        return () -> {
+            List<String> record;
+            do {
+                record = csv.next();
+                if (record == null) {
+                    return null;
+                }
+                rowNumber[0]++;
+            } while (record.size() == 1 && record.get(0).isEmpty());
+
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size() && i < record.size(); i++) {
+                String value = record.get(i).trim();
+                if (!value.isEmpty()) {
+                    values.put(header.get(i).trim(), value);
+                }
+            }
+            try {
+                return new ParsedRow(rowNumber[0], objectMapper.convertValue(values, ImportRow.class), null);
+            } catch (IllegalArgumentException e) {
+                return new ParsedRow(rowNumber[0], null, "Unparseable row: " + e.getMessage());
+            }
+        };
+    }
+
+    private RowSource ndjsonSource(BufferedReader reader) {
+        ObjectReader json = objectMapper.readerFor(ImportRow.class);
+        long[] lineNumber = {0};
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                lineNumber[0]++;
+            } while (line.isBlank());
+
+            try {
+                return new ParsedRow(lineNumber[0], json.readValue(line), null);
+            } catch (JsonProcessingException e) {
+                return new ParsedRow(lineNumber[0], null, "Unparseable line: " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    // ========== VALIDATION ==========
+
+    private Lookups loadLookups() {
+        Map<String, Long> suppliers = new HashMap<>();
+        for (Supplier supplier : supplierRepo.findAll()) {
+            if (supplier.getName() != null) {
+                suppliers.put(key(supplier.getName()), supplier.getId());
+            }
+        }
+        Map<String, Long> hazardClasses = new HashMap<>();
+        for (HazardClass hazardClass : hazardClassRepo.findAll()) {
+            if (hazardClass.getGhsCode() != null) {
+                hazardClasses.put(key(hazardClass.getGhsCode()), hazardClass.getId());
+            }
+        }
+        Set<Long> locations = Set.copyOf(locationRepo.findAllIds());
+        return new Lookups(suppliers, hazardClasses, locations);
+    }
+
+    private static ValidRow validate(ParsedRow parsed, Lookups lookups) {
+        if (parsed.error != null) {
+            return ValidRow.rejected(parsed.rowNumber, parsed.error);
+        }
+        ImportRow row = parsed.row;
+        if (row.getSku() == null || row.getSku().isBlank()) {
+            return ValidRow.rejected(parsed.rowNumber, "sku is required");
+        }
+        Long supplierId = null;
+        if (row.getSupplier() != null) {
+            supplierId = lookups.suppliers.get(key(row.getSupplier()));
+            if (supplierId == null) {
+                return ValidRow.rejected(parsed.rowNumber, "Unknown supplier: " + row.getSupplier());
+            }
+        }
+        Long hazardClassId = null;
+        if (row.getHazardClass() != null) {
+            hazardClassId = lookups.hazardClasses.get(key(row.getHazardClass()));
+            if (hazardClassId == null) {
+                return ValidRow.rejected(parsed.rowNumber, "Unknown hazard class: " + row.getHazardClass());
+            }
+        }
+        if (row.getLocationId() != null && !lookups.locations.contains(row.getLocationId())) {
+            return ValidRow.rejected(parsed.rowNumber, "Unknown location: " + row.getLocationId());
+        }
+        if (row.getQuantity() != null && row.getQuantity() < 0) {
+            return ValidRow.rejected(parsed.rowNumber, "quantity must not be negative");
+        }
+        return new ValidRow(parsed.rowNumber, row, supplierId, hazardClassId, null);
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // ========== WRITING ==========
+
+    private void processChunk(List<ParsedRow> chunk, Lookups lookups, ImportReport report) {
+        List<ValidRow> validated = chunk.parallelStream()
+            .map(parsed -> validate(parsed, lookups))
+            .collect(Collectors.toList());
+
+        List<ValidRow> valid = new ArrayList<>(validated.size());
+        for (ValidRow row : validated) {
+            if (row.error != null) {
+                reject(report, row.rowNumber, row.error);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeChunk(valid, report));
+        } catch (RuntimeException e) {
+            log.warn("Import chunk of {} rows failed", valid.size(), e);
+            for (ValidRow row : valid) {
+                reject(report, row.rowNumber, "Chunk rolled back: " + e.getMessage());
+            }
+        }
+    }
+
+    private void writeChunk(List<ValidRow> rows, ImportReport report) {
+        Map<String, Long> referenceIds = findReferenceIds(rows.stream()
+            .map(row -> row.row.getSku())
+            .collect(Collectors.toSet()));
+
+        // First row of each unknown SKU defines the new reference
+        Map<String, ValidRow> newReferences = new LinkedHashMap<>();
+        List<ValidRow> accepted = new ArrayList<>(rows.size());
+        List<Long> rejectedRows = new ArrayList<>();
+        List<String> rejectedReasons = new ArrayList<>();
+        for (ValidRow row : rows) {
+            String sku = row.row.getSku();
+            if (!referenceIds.containsKey(sku) && !newReferences.containsKey(sku)) {
+                if (row.row.getName() == null || row.row.getProductType() == null) {
+                    rejectedRows.add(row.rowNumber);
+                    rejectedReasons.add("name and productType are required for new sku " + sku);
+                    continue;
+                }
+                newReferences.put(sku, row);
+            }
+            accepted.add(row);
+        }
+
+        if (!newReferences.isEmpty()) {
+            jdbc.batchUpdate(INSERT_REFERENCE, newReferences.values().stream()
+                .map(BulkImportService::referenceValues)
+                .collect(Collectors.toList()));
+            referenceIds.putAll(findReferenceIds(newReferences.keySet()));
+        }
+
+        LocalDate today = LocalDate.now();
+        List<Object[]> items = new ArrayList<>();
+        Set<Long> touchedReferences = new HashSet<>();
+        for (ValidRow row : accepted) {
+            if (row.row.hasBatch()) {
+                Long referenceId = referenceIds.get(row.row.getSku());
+                items.add(itemValues(referenceId, row.row, today));
+                touchedReferences.add(referenceId);
+            }
+        }
+        if (!items.isEmpty()) {
+            jdbc.batchUpdate(INSERT_ITEM, items);
+        }
+        stockSummaryService.rebuild(touchedReferences);
+
+        // Only count once the chunk is written; the caller rejects everything if it throws
+        for (int i = 0; i < rejectedRows.size(); i++) {
+            reject(report, rejectedRows.get(i), rejectedReasons.get(i));
+        }
+        report.setAccepted(report.getAccepted() + accepted.size());
+        report.setReferencesCreated(report.getReferencesCreated() + newReferences.size());
+        report.setItemsCreated(report.getItemsCreated() + items.size());
+    }
+
+    private Map<String, Long> findReferenceIds(Set<String> skus) {
+        Map<String, Long> ids = new HashMap<>();
+        if (skus.isEmpty()) {
+            return ids;
+        }
+        namedJdbc.query("SELECT id, sku FROM storage_references WHERE sku IN (:skus)",
+            Map.of("skus", skus),
+            rs -> {
+                ids.put(rs.getString("sku"), rs.getLong("id"));
+            });
+        return ids;
+    }
+
+    private static Object[] referenceValues(ValidRow valid) {
+        ImportRow row = valid.row;
+        return new Object[] {
+            row.getName(), row.getProductType().name(), row.getDescription(), row.getSku(),
+            row.getCasNumber(), row.getFormula(), row.getManufacturer(), row.getModelNumber(),
+            valid.supplierId, valid.hazardClassId, row.getDefaultMinStock(), row.getDefaultMaxStock(),
+            row.getDefaultUnit(), row.getShelfLifeDays()
+        };
+    }
+
+    private static Object[] itemValues(Long referenceId, ImportRow row, LocalDate today) {
+        ItemStatus status = row.getStatus() != null ? row.getStatus() : ItemStatus.AVAILABLE;
+        // Same rule as StorageItem.validateBatch
+        if (status == ItemStatus.AVAILABLE && row.getExpirationDate() != null
+                && row.getExpirationDate().isBefore(today)) {
+            status = ItemStatus.EXPIRED;
+        }
+        return new Object[] {
+            referenceId, row.getBatchNumber(), row.getLotNumber(), row.getReceivedDate(), row.getExpirationDate(),
+            status.name(), row.getQuantity(), row.getUnit(), row.getLocationId()
+        };
+    }
+
+    private static void reject(ImportReport report, long rowNumber, String reason) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getRejections().size() < MAX_REPORTED_REJECTIONS) {
+            report.getRejections().add(new ImportRejection(rowNumber, reason));
+        }
+    }
+
+    // ========== INTERNAL TYPES ==========
+
+    private static final class Lookups {
+        final Map<String, Long> suppliers;
+        final Map<String, Long> hazardClasses;
+        final Set<Long> locations;
+
+        Lookups(Map<String, Long> suppliers, Map<String, Long> hazardClasses, Set<Long> locations) {
+            this.suppliers = suppliers;
+            this.hazardClasses = hazardClasses;
+            this.locations = locations;
+        }
+    }
+
+    private static final class ParsedRow {
+        final long rowNumber;
+        final ImportRow row;
+        final String error;
+
+        ParsedRow(long rowNumber, ImportRow row, String error) {
+            this.rowNumber = rowNumber;
+            this.row = row;
+            this.error = error;
+        }
+    }
+
+    private static final class ValidRow {
+        final long rowNumber;
+        final ImportRow row;
+        final Long supplierId;
+        final Long hazardClassId;
+        final String error;
+
+        ValidRow(long rowNumber, ImportRow row, Long supplierId, Long hazardClassId, String error) {
+            this.rowNumber = rowNumber;
+            this.row = row;
+            this.supplierId = supplierId;
+            this.hazardClassId = hazardClassId;
+            this.error = error;
+        }
+
+        static ValidRow rejected(long rowNumber, String error) {
+            return new ValidRow(rowNumber, null, null, null, error);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.anode.storage.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.anode.storage.cluster.ClusterRelay;
+import com.anode.storage.entity.notification.Notification;
+import com.anode.storage.event.TemperatureExcursionEvent;
+import com.anode.storage.event.TemperatureExcursionEvent.Direction;
+import com.anode.storage.repository.NotificationRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers temperature excursion alerts: a Notification row and a message on /topic/sensors/excursions,
+ * relayed to the clients of every node.
+ *
+ * Events are raised on the ingest request thread, so delivery runs on a thread of its own: a database or
+ * relay failure never fails a request whose readings were already accepted. A failed delivery re-arms the
+ * location in the ExcursionDetector, so the next reading still outside the range raises the alert again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExcursionAlertService {
+
+    static final String NOTIFICATION_TYPE = "TEMPERATURE_EXCURSION";
+    static final String TOPIC = "/topic/sensors/excursions";
+
+    private final NotificationRepository notificationRepo;
+    private final ClusterRelay relay;
+    private final ExcursionDetector excursionDetector;
+    private final ExecutorService deliverer = Executors.newSingleThreadExecutor();
+
+    @PreDestroy
+    void shutdown() {
+        deliverer.shutdownNow();
+    }
+
+    @EventListener
+    public void onExcursion(TemperatureExcursionEvent event) {
+        try {
+            deliverer.execute(() -> deliver(event));
+        } catch (RejectedExecutionException e) {
+            log.warn("Cannot queue excursion alert for location {}", event.getLocationId(), e);
+            excursionDetector.rearm(event.getLocationId(), event.getDirection());
+        }
+    }
+
+    private void deliver(TemperatureExcursionEvent event) {
+        String message = String.format("Location %d is %s %s °C since %s (now %.1f °C)",
+            event.getLocationId(),
+            event.getDirection() == Direction.ABOVE_MAX ? "above its maximum of" : "below its minimum of",
+            event.getLimit(), event.getSince(), event.getTemperature());
+        log.warn(message);
+
+        try {
+            Notification notification = new Notification();
+            notification.setType(NOTIFICATION_TYPE);
+            notification.setMessage(message);
+            notificationRepo.save(notification);
+
+            relay.convertAndSend(TOPIC, event);
+        } catch (RuntimeException e) {
+            log.error("Cannot deliver excursion alert for location {}, re-arming it", event.getLocationId(), e);
+            excursionDetector.rearm(event.getLocationId(), event.getDirection());
+        }
+    }
+}
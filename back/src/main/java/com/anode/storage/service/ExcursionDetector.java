@@ -0,0 +1,166 @@
+package com.anode.storage.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.anode.storage.dto.SensorReadingInput;
+import com.anode.storage.entity.location.Location;
+import com.anode.storage.event.TemperatureExcursionEvent;
+import com.anode.storage.event.TemperatureExcursionEvent.Direction;
+import com.anode.storage.repository.LocationRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Evaluates incoming sensor readings against each location's temperature range, in memory.
+ *
+ * Bounds are parsed from Location.temperatureRange once and refreshed periodically, so a reading costs
+ * a map lookup and a comparison. A location alerts when it has been continuously outside its range for
+ * the sustain time; it re-arms only once a reading is back inside by the hysteresis margin, so a value
+ * hovering around the limit raises one alert, not one per reading.
+ *
+ * The tracking state lives on the node that ingests a location's readings. With several nodes, sensor
+ * ingest must be routed by location (sticky per gateway or location at the load balancer): a location
+ * whose readings are split across nodes is seen in pieces by each, so its alerts come late or not at
+ * all. Such locations are detected from the sensor window's cluster announcements and logged.
+ */
+@Service
+@Slf4j
+public class ExcursionDetector {
+
+    private final LocationRepository locationRepo;
+    private final ApplicationEventPublisher events;
+    private final SensorWindowService windowService;
+    private final Duration sustain;
+    private final double hysteresis;
+
+    private volatile Map<Long, TemperatureRange> ranges = Map.of();
+    private final Map<Long, State> states = new ConcurrentHashMap<>();
+
+    public ExcursionDetector(LocationRepository locationRepo,
+                             ApplicationEventPublisher events,
+                             SensorWindowService windowService,
+                             @Value("${storage.sensors.excursion-sustain:PT10M}") Duration sustain,
+                             @Value("${storage.sensors.excursion-hysteresis:0.5}") double hysteresis) {
+        this.locationRepo = locationRepo;
+        this.events = events;
+        this.windowService = windowService;
+        this.sustain = sustain;
+        this.hysteresis = hysteresis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${storage.sensors.range-refresh-ms:300000}", initialDelayString = "${storage.sensors.range-refresh-ms:300000}")
+    public void reloadRanges() {
+        Map<Long, TemperatureRange> loaded = new HashMap<>();
+        for (Location location : locationRepo.findAll()) {
+            TemperatureRange.parse(location.getTemperatureRange()).ifPresentOrElse(
+                range -> loaded.put(location.getId(), range),
+                () -> {
+                    if (location.getTemperatureRange() != null && !location.getTemperatureRange().isBlank()) {
+                        log.warn("Cannot parse temperature range '{}' of location {}",
+                            location.getTemperatureRange(), location.getId());
+                    }
+                });
+        }
+        ranges = Map.copyOf(loaded);
+        states.keySet().retainAll(loaded.keySet());
+        warnSplitLocations();
+    }
+
+    private void warnSplitLocations() {
+        List<Long> split = states.keySet().stream().filter(windowService::isIngestedElsewhere).sorted().toList();
+        if (!split.isEmpty()) {
+            log.warn("Readings of {} monitored locations also arrive at other nodes, so their excursion alerts "
+                + "are unreliable; route sensor ingest by location. First ones: {}", split.size(),
+                split.stream().limit(20).map(String::valueOf).collect(Collectors.joining(", ")));
+        }
+    }
+
+    public void evaluate(List<SensorReadingInput> readings) {
+        Map<Long, TemperatureRange> current = ranges;
+        for (SensorReadingInput reading : readings) {
+            TemperatureRange range = current.get(reading.getLocationId());
+            if (range == null || reading.getTemperature() == null) {
+                continue;
+            }
+            State state = states.computeIfAbsent(reading.getLocationId(), id -> new State());
+            TemperatureExcursionEvent alert = state.update(reading.getLocationId(), range,
+                reading.getTemperature(), reading.getTimestamp());
+            if (alert != null) {
+                events.publishEvent(alert);
+            }
+        }
+    }
+
+    /**
+     * Let a location alert again for an excursion whose alert could not be delivered
+     */
+    public void rearm(Long locationId, Direction direction) {
+        State state = states.get(locationId);
+        if (state != null) {
+            state.rearm(direction);
+        }
+    }
+
+    /**
+     * Excursion tracking of one location. Readings older than the last one seen are ignored.
+     */
+    private final class State {
+        private LocalDateTime lastSeen;
+        private Direction direction;
+        private LocalDateTime outsideSince;
+        private boolean alerted;
+
+        synchronized TemperatureExcursionEvent update(Long locationId, TemperatureRange range,
+                                                      double temperature, LocalDateTime at) {
+            if (lastSeen != null && at.isBefore(lastSeen)) {
+                return null;
+            }
+            lastSeen = at;
+
+            Direction now = range.isAbove(temperature) ? Direction.ABOVE_MAX
+                : range.isBelow(temperature) ? Direction.BELOW_MIN
+                : null;
+
+            if (now == null) {
+                if (!alerted || range.isWellInside(temperature, hysteresis)) {
+                    direction = null;
+                    outsideSince = null;
+                    alerted = false;
+                }
+                return null;
+            }
+            if (now != direction) {
+                direction = now;
+                outsideSince = at;
+                alerted = false;
+            }
+            if (alerted || Duration.between(outsideSince, at).compareTo(sustain) < 0) {
+                return null;
+            }
+            alerted = true;
+            Double limit = now == Direction.ABOVE_MAX ? range.getMax() : range.getMin();
+            return new TemperatureExcursionEvent(locationId, now, temperature, limit, outsideSince, at);
+        }
+
+        // Only while still in the same excursion; the next reading outside the range alerts again
+        synchronized void rearm(Direction failed) {
+            if (direction == failed) {
+                alerted = false;
+            }
+        }
+    }
+}
@@ -1,45 +1,221 @@
 package com.anode.storage.service;
 
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.anode.storage.cluster.JobLock;
 import com.anode.storage.entity.core.ProductType;
 import com.anode.storage.entity.core.StorageItem;
+import com.anode.storage.entity.location.Site;
+import com.anode.storage.repository.ExpiringBatch;
+import com.anode.storage.repository.SiteRepository;
 import com.anode.storage.repository.StorageItemRepository;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Expiration warnings.
+ *
+ * The daily job pages through the batches expiring within the warning window in (expiration date, id)
+ * order, reading each page as flat rows, and folds them into one digest per site. Only the site totals
+ * and the first lines of each digest are kept in memory. Digests replace the unread ones of the previous
+ * run as Notification rows, written in one JDBC batch. A run holds a cluster-wide JobLock, so the
+ * digests go out from one node only.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class ExpirationService {
 
+    static final String NOTIFICATION_TYPE = "EXPIRATION_DIGEST";
+    static final int WARNING_DAYS = 30;
+    static final int PAGE_SIZE = 5000;
+    static final int MAX_DIGEST_LINES = 50;
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
     private final StorageItemRepository repo;
+    private final SiteRepository siteRepo;
     private final EmailService emailService;
+    private final JdbcTemplate jdbc;
+    private final JobLock jobLock;
+    private final TransactionTemplate writeTx;
+    private final Timer timer;
+    private final AtomicLong lastRows = new AtomicLong();
+    private final AtomicLong lastDigests = new AtomicLong();
+
+    public ExpirationService(StorageItemRepository repo,
+                             SiteRepository siteRepo,
+                             EmailService emailService,
+                             JdbcTemplate jdbc,
+                             JobLock jobLock,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry registry) {
+        this.repo = repo;
+        this.siteRepo = siteRepo;
+        this.emailService = emailService;
+        this.jdbc = jdbc;
+        this.jobLock = jobLock;
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.timer = Timer.builder("expiration.digest").register(registry);
+        registry.gauge("expiration.digest.rows", lastRows);
+        registry.gauge("expiration.digest.notifications", lastDigests);
+    }
 
     public List<StorageItem> findExpiringSoon() {
         LocalDate now = LocalDate.now();
-        LocalDate soon = now.plusDays(30);
+        LocalDate soon = now.plusDays(WARNING_DAYS);
 
         return repo.findByExpirationDateBetween(now, soon);
     }
 
     public List<StorageItem> findExpiringSoonByType(ProductType productType) {
         LocalDate now = LocalDate.now();
-        LocalDate soon = now.plusDays(30);
+        LocalDate soon = now.plusDays(WARNING_DAYS);
 
         return repo.findByProductTypeAndExpirationDateBetween(productType, now, soon);
     }
 
-    @Scheduled(cron = "0 0 6 * * *")
+    @Scheduled(cron = "${storage.expiration.digest-cron:0 0 6 * * *}")
     public void sendExpiringNotifications() {
-        // Only check expiration for product types that can expire (chemicals, some hardware)
-        List<StorageItem> expiring = findExpiringSoon();
+        // The save joins this transaction, which holds the lock until the digests are sent
+        writeTx.executeWithoutResult(status -> {
+            if (jobLock.tryLock(NOTIFICATION_TYPE)) {
+                timer.record(this::sendDigests);
+            } else {
+                log.info("Skipping expiration digest, another node is sending it");
+            }
+        });
+    }
+
+    private void sendDigests() {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        LocalDate threshold = today.plusDays(WARNING_DAYS);
+
+        // Keyed by site id; batches without a location share the null key
+        Map<Long, Digest> digests = new HashMap<>();
+        LocalDate afterDate = today;
+        long afterId = 0;
+        long rows = 0;
+        List<ExpiringBatch> page;
+        do {
+            page = repo.findExpiringBatchesAfter(today, threshold, afterDate, afterId, PageRequest.of(0, PAGE_SIZE));
+            for (ExpiringBatch batch : page) {
+                digests.computeIfAbsent(batch.getSiteId(), Digest::new).add(batch);
+            }
+            rows += page.size();
+            if (!page.isEmpty()) {
+                ExpiringBatch last = page.get(page.size() - 1);
+                afterDate = last.getExpirationDate();
+                afterId = last.getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+        long scanMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Map<Long, String> siteNames = new HashMap<>();
+        for (Site site : siteRepo.findAll()) {
+            siteNames.put(site.getId(), site.getName());
+        }
+        List<Digest> ordered = new ArrayList<>(digests.values());
+        ordered.sort(Comparator.comparing(d -> d.siteId, Comparator.nullsLast(Comparator.naturalOrder())));
+        List<String> messages = new ArrayList<>(ordered.size());
+        for (Digest digest : ordered) {
+            messages.add(digest.render(siteNames.get(digest.siteId)));
+        }
+
+        writeTx.executeWithoutResult(status -> save(messages));
+        for (int i = 0; i < ordered.size(); i++) {
+            emailService.sendExpirationDigest(ordered.get(i).subject(siteNames.get(ordered.get(i).siteId)), messages.get(i));
+        }
+
+        lastRows.set(rows);
+        lastDigests.set(messages.size());
+        log.info("Expiration digest: {} batches expiring by {} in {} digests (scan {} ms, total {} ms)",
+            rows, threshold, messages.size(), scanMs, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void save(List<String> messages) {
+        jdbc.update("DELETE FROM notification WHERE type = ? AND read = FALSE", NOTIFICATION_TYPE);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.batchUpdate("INSERT INTO notification (type, message, read, created_at) VALUES (?, ?, FALSE, ?)",
+            messages, INSERT_BATCH_SIZE, (ps, message) -> {
+                ps.setString(1, NOTIFICATION_TYPE);
+                ps.setString(2, message);
+                ps.setTimestamp(3, now);
+            });
+    }
+
+    /**
+     * Expiring batches of one site: totals, plus the soonest ones line by line
+     */
+    private static final class Digest {
+        final Long siteId;
+        final StringBuilder lines = new StringBuilder();
+        LocalDate earliest;
+        int count;
+
+        Digest(Long siteId) {
+            this.siteId = siteId;
+        }
+
+        void add(ExpiringBatch batch) {
+            if (count == 0) {
+                earliest = batch.getExpirationDate();
+            }
+            count++;
+            if (count <= MAX_DIGEST_LINES) {
+                lines.append("\n- ").append(batch.getExpirationDate())
+                    .append(' ').append(batch.getName())
+                    .append(" (").append(batch.getProductType() != null ? batch.getProductType().getDisplayName() : "?")
+                    .append(") #").append(batch.getId());
+                if (batch.getRoom() != null) {
+                    lines.append(" @ ").append(batch.getRoom());
+                    if (batch.getCabinet() != null) {
+                        lines.append(" / ").append(batch.getCabinet());
+                    }
+                    if (batch.getShelf() != null) {
+                        lines.append(" / ").append(batch.getShelf());
+                    }
+                }
+            }
+        }
+
+        String subject(String siteName) {
+            return count + " batches expiring within " + WARNING_DAYS + " days at " + place(siteName);
+        }
+
+        String render(String siteName) {
+            StringBuilder message = new StringBuilder(subject(siteName))
+                .append(" (earliest ").append(earliest).append("):")
+                .append(lines);
+            if (count > MAX_DIGEST_LINES) {
+                message.append("\n... and ").append(count - MAX_DIGEST_LINES).append(" more");
+            }
+            return message.toString();
+        }
 
-        if (!expiring.isEmpty()) {
-            emailService.sendExpirationWarning(expiring);
+        private String place(String siteName) {
+            if (siteId == null) {
+                return "no location";
+            }
+            return siteName != null ? siteName : "site " + siteId;
         }
     }
-}
\ No newline at end of file
+}
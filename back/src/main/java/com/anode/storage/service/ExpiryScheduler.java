@@ -0,0 +1,237 @@
+package com.anode.storage.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.anode.storage.dto.InventoryChange;
+import com.anode.storage.entity.core.ItemStatus;
+import com.anode.storage.event.InventoryChangedEvent;
+import com.anode.storage.event.StorageItemChangedEvent;
+import com.anode.storage.event.StorageItemChangedEvent.Change;
+import com.anode.storage.repository.ItemExpiry;
+import com.anode.storage.repository.StockLevel;
+import com.anode.storage.repository.StorageItemRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Marks available batches EXPIRED when their expiration date passes, so the status column can be trusted.
+ *
+ * Batches expiring within the next few days are held on a TimingWheel, keyed by the start of the day after
+ * their expiration date. The horizon is reloaded periodically, which also catches batches imported in bulk
+ * or edited on another node; items created or edited here are rescheduled once their transaction commits.
+ * Batches falling due are expired in chunks: one locking read and one bulk UPDATE per chunk, with stock
+ * summary deltas and change events in the same transaction. The UPDATE re-checks status and date, so a
+ * stale wheel entry, or a second node firing the same batch, changes nothing.
+ */
+@Service
+@Slf4j
+public class ExpiryScheduler {
+
+    static final int WHEEL_SIZE = 60;
+    static final int PAGE_SIZE = 5000;
+    static final int CHUNK_SIZE = 500;
+
+    private final StorageItemRepository repository;
+    private final StockSummaryService stockSummaryService;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate writeTx;
+    private final int horizonDays;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // Guarded by this: the wheel, and the deadline each scheduled item currently has on it
+    private final TimingWheel<Long> wheel;
+    private final Map<Long, Long> deadlines = new HashMap<>();
+    private LocalDate horizonEnd;
+
+    private final Set<Long> pendingReloads = ConcurrentHashMap.newKeySet();
+
+    private final Counter expired;
+
+    public ExpiryScheduler(StorageItemRepository repository,
+                           StockSummaryService stockSummaryService,
+                           ApplicationEventPublisher events,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry registry,
+                           @Value("${storage.expiry.tick-ms:1000}") long tickMillis,
+                           @Value("${storage.expiry.horizon-days:7}") int horizonDays) {
+        if (horizonDays < 1) {
+            throw new IllegalArgumentException("storage.expiry.horizon-days must be at least 1: " + horizonDays);
+        }
+        this.repository = repository;
+        this.stockSummaryService = stockSummaryService;
+        this.events = events;
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.horizonDays = horizonDays;
+        this.wheel = new TimingWheel<>(tickMillis, WHEEL_SIZE, System.currentTimeMillis());
+        this.horizonEnd = LocalDate.now(zone);
+        this.expired = registry.counter("expiry.expired");
+        registry.gaugeMapSize("expiry.scheduled", Tags.empty(), deadlines);
+    }
+
+    /**
+     * Load every available batch expiring before the end of the horizon; those already past their date
+     * are expired right away. Runs at startup and then periodically.
+     */
+    @Scheduled(fixedDelayString = "${storage.expiry.reload-ms:3600000}")
+    public void reload() {
+        long start = System.currentTimeMillis();
+        LocalDate end = LocalDate.now(zone).plusDays(horizonDays);
+        synchronized (this) {
+            horizonEnd = end;
+        }
+        List<Long> due = new ArrayList<>();
+        long afterId = 0;
+        int loaded = 0;
+        List<ItemExpiry> page;
+        do {
+            page = repository.findExpiryAfterId(end, afterId, PageRequest.of(0, PAGE_SIZE));
+            for (ItemExpiry item : page) {
+                schedule(item, due);
+            }
+            loaded += page.size();
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+
+        int count = expire(due);
+        log.info("Expiry horizon to {}: {} batches loaded, {} expired on load in {} ms",
+            end, loaded, count, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(StorageItemChangedEvent event) {
+        if (event.getChange() == Change.CREATED || event.getChange() == Change.UPDATED) {
+            pendingReloads.add(event.getItemId());
+        } else {
+            synchronized (this) {
+                deadlines.remove(event.getItemId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${storage.expiry.tick-ms:1000}")
+    public void tick() {
+        List<Long> due = new ArrayList<>();
+        reloadChanged(due);
+        synchronized (this) {
+            wheel.advance(System.currentTimeMillis(), (itemId, deadline) -> {
+                // Entries left behind by a rescheduled or removed item no longer match
+                if (deadlines.remove(itemId, deadline)) {
+                    due.add(itemId);
+                }
+            });
+        }
+        expire(due);
+    }
+
+    // Items changed on this node since the last tick: re-read their date and status, one query per chunk
+    private void reloadChanged(List<Long> due) {
+        if (pendingReloads.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pendingReloads);
+        pendingReloads.removeAll(ids);
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            Map<Long, ItemExpiry> found = new HashMap<>();
+            for (ItemExpiry item : repository.findExpiry(chunk)) {
+                found.put(item.getId(), item);
+            }
+            for (Long id : chunk) {
+                ItemExpiry item = found.get(id);
+                if (item != null) {
+                    schedule(item, due);
+                } else {
+                    synchronized (this) {
+                        deadlines.remove(id);
+                    }
+                }
+            }
+        }
+    }
+
+    private synchronized void schedule(ItemExpiry item, List<Long> due) {
+        LocalDate date = item.getExpirationDate();
+        if (item.getStatus() != ItemStatus.AVAILABLE || date == null || !date.isBefore(horizonEnd)) {
+            deadlines.remove(item.getId());
+            return;
+        }
+        long deadline = deadline(date);
+        Long previous = deadlines.put(item.getId(), deadline);
+        if (previous != null && previous == deadline) {
+            return;
+        }
+        if (!wheel.add(deadline, item.getId())) {
+            deadlines.remove(item.getId());
+            due.add(item.getId());
+        }
+    }
+
+    /**
+     * A batch expires at the start of the day after its expiration date, as in StorageItem.validateBatch
+     */
+    long deadline(LocalDate expirationDate) {
+        return expirationDate.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private int expire(List<Long> itemIds) {
+        int count = 0;
+        for (int from = 0; from < itemIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = itemIds.subList(from, Math.min(from + CHUNK_SIZE, itemIds.size()));
+            try {
+                Integer done = writeTx.execute(status -> expireChunk(chunk));
+                count += done != null ? done : 0;
+            } catch (RuntimeException e) {
+                // Not rescheduled here: the next reload finds these batches again
+                log.warn("Cannot expire {} batches", chunk.size(), e);
+            }
+        }
+        return count;
+    }
+
+    private int expireChunk(List<Long> itemIds) {
+        LocalDate today = LocalDate.now(zone);
+        List<StockLevel> levels = repository.lockExpirable(itemIds, today);
+        if (levels.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(levels.size());
+        for (StockLevel level : levels) {
+            ids.add(level.getId());
+        }
+        repository.markExpired(ids, today);
+
+        List<InventoryChange> changes = new ArrayList<>(levels.size());
+        for (StockLevel level : levels) {
+            stockSummaryService.recordChange(
+                new StockState(level.getReferenceId(), ItemStatus.AVAILABLE, level.getQuantity()),
+                new StockState(level.getReferenceId(), ItemStatus.EXPIRED, level.getQuantity()));
+            events.publishEvent(new StorageItemChangedEvent(level.getId(), level.getReferenceId(), Change.EXPIRED));
+            changes.add(new InventoryChange(level.getId(), level.getReferenceId(), level.getLocationId(), null,
+                level.getQuantity(), ItemStatus.EXPIRED, false));
+        }
+        events.publishEvent(new InventoryChangedEvent(changes));
+        expired.increment(levels.size());
+        return levels.size();
+    }
+}
@@ -0,0 +1,107 @@
+package com.anode.storage.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import com.anode.storage.entity.safety.IncompatibilityRule;
+
+/**
+ * Immutable snapshot of the incompatibility rules as a symmetric bit matrix.
+ * Only hazard classes named in a rule get a row and column, numbered densely in id order, so the matrix
+ * grows with the number of such classes rather than with the largest id. A pair check is two binary
+ * searches over those ids and one array read; the reason text is only looked up for pairs that conflict.
+ */
+final class IncompatibilityMatrix {
+
+    static final IncompatibilityMatrix EMPTY = new IncompatibilityMatrix(new int[0], new long[0][], Map.of(), 0);
+
+    // Sorted hazard class ids; the position of an id is its row and column
+    private final int[] ids;
+    private final long[][] rows;
+    private final Map<Long, String> reasons;
+    private final int ruleCount;
+
+    private IncompatibilityMatrix(int[] ids, long[][] rows, Map<Long, String> reasons, int ruleCount) {
+        this.ids = ids;
+        this.rows = rows;
+        this.reasons = reasons;
+        this.ruleCount = ruleCount;
+    }
+
+    static IncompatibilityMatrix of(Collection<IncompatibilityRule> rules) {
+        int[] ids = rules.stream()
+            .filter(IncompatibilityMatrix::isComplete)
+            .flatMapToInt(rule -> IntStream.of(classA(rule), classB(rule)))
+            .sorted()
+            .distinct()
+            .toArray();
+        int size = ids.length;
+        long[][] rows = new long[size][(size + 63) >>> 6];
+        Map<Long, String> reasons = new HashMap<>();
+        int count = 0;
+        for (IncompatibilityRule rule : rules) {
+            if (!isComplete(rule)) {
+                continue;
+            }
+            int a = Arrays.binarySearch(ids, classA(rule));
+            int b = Arrays.binarySearch(ids, classB(rule));
+            rows[a][b >>> 6] |= 1L << b;
+            rows[b][a >>> 6] |= 1L << a;
+            // Keep the first reason when the same pair is listed twice
+            reasons.putIfAbsent(pairKey(a, b), rule.getReason());
+            count++;
+        }
+        return new IncompatibilityMatrix(ids, rows, reasons, count);
+    }
+
+    private static boolean isComplete(IncompatibilityRule rule) {
+        Integer a = classA(rule);
+        Integer b = classB(rule);
+        return a != null && b != null && a >= 0 && b >= 0;
+    }
+
+    // The integer columns are read-only mirrors of the associations and stay null on a rule saved in this session
+    private static Integer classA(IncompatibilityRule rule) {
+        if (rule.getHazardClassA() != null) {
+            return rule.getHazardClassA();
+        }
+        return rule.getHazardClassAEntity() != null ? Math.toIntExact(rule.getHazardClassAEntity().getId()) : null;
+    }
+
+    private static Integer classB(IncompatibilityRule rule) {
+        if (rule.getHazardClassB() != null) {
+            return rule.getHazardClassB();
+        }
+        return rule.getHazardClassBEntity() != null ? Math.toIntExact(rule.getHazardClassBEntity().getId()) : null;
+    }
+
+    boolean incompatible(int a, int b) {
+        return incompatibleAt(Arrays.binarySearch(ids, a), Arrays.binarySearch(ids, b));
+    }
+
+    Optional<String> reason(int a, int b) {
+        int i = Arrays.binarySearch(ids, a);
+        int j = Arrays.binarySearch(ids, b);
+        if (!incompatibleAt(i, j)) {
+            return Optional.empty();
+        }
+        return Optional.of(reasons.getOrDefault(pairKey(i, j), ""));
+    }
+
+    // Negative when a class is in no rule
+    private boolean incompatibleAt(int i, int j) {
+        return i >= 0 && j >= 0 && (rows[i][j >>> 6] & (1L << j)) != 0;
+    }
+
+    int ruleCount() {
+        return ruleCount;
+    }
+
+    private static long pairKey(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+}
@@ -0,0 +1,123 @@
+package com.anode.storage.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.anode.storage.dto.DataFormat;
+import com.anode.storage.dto.StorageItemSummary;
+import com.anode.storage.entity.core.ItemStatus;
+import com.anode.storage.entity.core.ProductType;
+import com.anode.storage.entity.core.StorageItem;
+import com.anode.storage.repository.StorageItemRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the inventory as NDJSON or CSV while reading it from a database cursor.
+ * Rows are detached as soon as they are written and the persistence context is
+ * cleared periodically, so memory stays flat regardless of inventory size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryExportService {
+
+    static final int CLEAR_INTERVAL = 1000;
+
+    private static final String[] CSV_HEADER = {
+        "id", "referenceId", "name", "sku", "productType", "batchNumber", "lotNumber",
+        "expirationDate", "status", "quantity", "unit", "locationId", "locationLabel"
+    };
+
+    private final StorageItemRepository repository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Stream matching items to {@code out}, returns the number of rows written.
+     * Must run in a transaction so the JDBC driver can fetch the cursor in chunks.
+     */
+    @Transactional(readOnly = true)
+    public long export(ProductType productType, Long siteId, ItemStatus status,
+                       DataFormat format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter json = objectMapper.writerFor(StorageItemSummary.class);
+        long count = 0;
+
+        if (format == DataFormat.CSV) {
+            writeCsvLine(writer, CSV_HEADER);
+        }
+        try (Stream<StorageItem> rows = repository.streamForExport(productType, siteId, status)) {
+            Iterator<StorageItem> it = rows.iterator();
+            while (it.hasNext()) {
+                StorageItem item = it.next();
+                StorageItemSummary row = StorageItemSummary.from(item);
+                if (format == DataFormat.CSV) {
+                    writeCsvLine(writer, csvValues(row));
+                } else {
+                    writer.write(json.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                entityManager.detach(item);
+                if (++count % CLEAR_INTERVAL == 0) {
+                    // References and locations are shared between rows; drop them in bulk
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Exported {} items as {} in {} ms", count, format, System.currentTimeMillis() - start);
+        return count;
+    }
+
+    private static String[] csvValues(StorageItemSummary row) {
+        return new String[] {
+            str(row.getId()), str(row.getReferenceId()), row.getName(), row.getSku(), str(row.getProductType()),
+            row.getBatchNumber(), row.getLotNumber(), str(row.getExpirationDate()), str(row.getStatus()),
+            str(row.getQuantity()), row.getUnit(), str(row.getLocationId()), row.getLocationLabel()
+        };
+    }
+
+    private static String str(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * RFC 4180: quote fields containing separators, quotes or line breaks
+     */
+    static void writeCsvLine(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+}
@@ -0,0 +1,385 @@
+package com.anode.storage.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import com.anode.storage.cluster.ClusterRelay;
+import com.anode.storage.dto.InventoryChange;
+import com.anode.storage.dto.InventoryFeedMessage;
+import com.anode.storage.event.InventoryChangedEvent;
+import com.anode.storage.repository.LocationRepository;
+import com.anode.storage.repository.LocationSite;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Live feed of committed batch changes on /topic/inventory/{siteId}.
+ *
+ * Subscriptions to the feed are tracked here and served directly through clientOutboundChannel instead of
+ * the SimpleBroker. Changes are conflated per site and item between flushes, and every flush serializes a
+ * site's changes once and hands the same frame to each subscriber that has nothing in flight. A subscriber
+ * whose previous frame is still being written keeps a bounded queue of its own, conflated per item, so a
+ * slow client only delays itself; when that queue overflows it is cleared and the client is told to resync.
+ * Changes committed on other nodes arrive through the ClusterRelay and are routed like local ones.
+ */
+@Service
+@Slf4j
+public class InventoryFeedService implements ExecutorChannelInterceptor {
+
+    static final String DESTINATION_PREFIX = "/topic/inventory/";
+    static final String CLUSTER_CHANNEL = "inventory";
+    static final int MAX_MESSAGE_CHANGES = 1000;
+
+    private static final String SUBSCRIBER_HEADER = "inventoryFeedSubscriber";
+    private static final long SITE_RELOAD_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AbstractSubscribableChannel clientOutboundChannel;
+    private final ClusterRelay relay;
+    private final LocationRepository locationRepo;
+    private final ObjectMapper objectMapper;
+    private final int maxPending;
+
+    // site -> item -> latest change since the last flush
+    private final Map<Long, Map<Long, InventoryChange>> siteChanges = new ConcurrentHashMap<>();
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> subscribersBySite = new ConcurrentHashMap<>();
+    private volatile Map<Long, Long> siteByLocation = Map.of();
+    private volatile long sitesLoadedAt;
+
+    private final Counter conflated;
+    private final Counter dropped;
+    private final Counter resyncs;
+    private final Counter frames;
+    private final Timer flushTimer;
+
+    public InventoryFeedService(@Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel,
+                                ClusterRelay relay,
+                                LocationRepository locationRepo,
+                                ObjectMapper objectMapper,
+                                MeterRegistry registry,
+                                @Value("${storage.inventory-feed.max-pending:5000}") int maxPending) {
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.relay = relay;
+        this.locationRepo = locationRepo;
+        this.objectMapper = objectMapper;
+        this.maxPending = maxPending;
+        this.conflated = registry.counter("inventory.feed.conflated");
+        this.dropped = registry.counter("inventory.feed.dropped");
+        this.resyncs = registry.counter("inventory.feed.resyncs");
+        this.frames = registry.counter("inventory.feed.frames");
+        this.flushTimer = registry.timer("inventory.feed.flush");
+        registry.gaugeMapSize("inventory.feed.subscribers", Tags.empty(), subscribers);
+        registry.gauge("inventory.feed.queued", subscribers, s -> s.values().stream().mapToInt(Subscriber::pending).sum());
+        registry.gauge("inventory.feed.in_flight", subscribers, s -> s.values().stream().filter(Subscriber::inFlight).count());
+    }
+
+    @PostConstruct
+    void register() {
+        clientOutboundChannel.addInterceptor(this);
+        relay.subscribe(CLUSTER_CHANNEL, payload -> {
+            try {
+                route(objectMapper.treeToValue(payload, InventoryChange.class));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed inventory change", e);
+            }
+        });
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = headers.getDestination();
+        if (destination == null || !destination.startsWith(DESTINATION_PREFIX)) {
+            return;
+        }
+        Long siteId;
+        try {
+            siteId = Long.valueOf(destination.substring(DESTINATION_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        Subscriber subscriber = new Subscriber(headers.getSessionId(), headers.getSubscriptionId(), siteId, destination);
+        remove(subscribers.get(subscriber.key));
+        subscribers.put(subscriber.key, subscriber);
+        subscribersBySite.computeIfAbsent(siteId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        remove(subscribers.get(key(headers.getSessionId(), headers.getSubscriptionId())));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + "/";
+        subscribers.values().stream()
+            .filter(s -> s.key.startsWith(prefix))
+            .toList()
+            .forEach(this::remove);
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscriber == null) {
+            return;
+        }
+        subscribers.remove(subscriber.key);
+        Set<Subscriber> site = subscribersBySite.get(subscriber.siteId);
+        if (site != null) {
+            site.remove(subscriber);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onChanged(InventoryChangedEvent event) {
+        for (InventoryChange change : event.getChanges()) {
+            relay.publish(CLUSTER_CHANNEL, change);
+            route(change);
+        }
+    }
+
+    private void route(InventoryChange change) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Long siteId = siteOf(change.getLocationId());
+        Long previousSiteId = siteOf(change.getPreviousLocationId());
+        if (siteId != null) {
+            enqueue(siteId, change);
+        }
+        // A batch moved to another site leaves the old site's boards too
+        if (previousSiteId != null && !previousSiteId.equals(siteId)) {
+            enqueue(previousSiteId, change);
+        }
+    }
+
+    private void enqueue(Long siteId, InventoryChange change) {
+        if (subscribersBySite.getOrDefault(siteId, Set.of()).isEmpty()) {
+            return;
+        }
+        while (true) {
+            Map<Long, InventoryChange> changes = siteChanges.computeIfAbsent(siteId, id -> new LinkedHashMap<>());
+            synchronized (changes) {
+                // Taken by a flush in the meantime: start a new map
+                if (siteChanges.get(siteId) != changes) {
+                    continue;
+                }
+                if (changes.merge(change.getItemId(), change, InventoryFeedService::latest) != change) {
+                    conflated.increment();
+                }
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${storage.inventory-feed.flush-ms:100}")
+    public void flush() {
+        if (siteChanges.isEmpty() && subscribers.values().stream().noneMatch(Subscriber::hasWork)) {
+            return;
+        }
+        flushTimer.record(() -> {
+            Map<Long, List<InventoryChange>> batches = new HashMap<>();
+            for (Long siteId : siteChanges.keySet()) {
+                Map<Long, InventoryChange> changes = siteChanges.get(siteId);
+                if (changes == null) {
+                    continue;
+                }
+                synchronized (changes) {
+                    siteChanges.remove(siteId);
+                    batches.put(siteId, new ArrayList<>(changes.values()));
+                }
+            }
+            Map<Long, byte[]> encoded = new HashMap<>();
+            for (Subscriber subscriber : subscribers.values()) {
+                List<InventoryChange> batch = batches.getOrDefault(subscriber.siteId, List.of());
+                subscriber.deliver(batch, encoded);
+            }
+        });
+    }
+
+    // ExecutorChannelInterceptor: runs on the outbound thread once the frame has been written to the session
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        Object key = message.getHeaders().get(SUBSCRIBER_HEADER);
+        if (key != null) {
+            Subscriber subscriber = subscribers.get(key);
+            if (subscriber != null) {
+                subscriber.handled();
+            }
+        }
+    }
+
+    private Long siteOf(Long locationId) {
+        if (locationId == null) {
+            return null;
+        }
+        Long siteId = siteByLocation.get(locationId);
+        return siteId != null ? siteId : reloadSites().get(locationId);
+    }
+
+    private synchronized Map<Long, Long> reloadSites() {
+        long now = System.nanoTime();
+        if (sitesLoadedAt == 0 || now - sitesLoadedAt > SITE_RELOAD_INTERVAL_NANOS) {
+            Map<Long, Long> loaded = new HashMap<>();
+            for (LocationSite row : locationRepo.findSites()) {
+                if (row.getSiteId() != null) {
+                    loaded.put(row.getLocationId(), row.getSiteId());
+                }
+            }
+            siteByLocation = Map.copyOf(loaded);
+            sitesLoadedAt = now;
+        }
+        return siteByLocation;
+    }
+
+    private static InventoryChange latest(InventoryChange earlier, InventoryChange later) {
+        if (earlier.getPreviousLocationId() == null || later.getPreviousLocationId() != null) {
+            return later;
+        }
+        // Keep where the batch was before the first move, so boards of that location still drop it
+        return new InventoryChange(later.getItemId(), later.getReferenceId(), later.getLocationId(),
+            earlier.getPreviousLocationId(), later.getQuantity(), later.getStatus(), later.isDeleted());
+    }
+
+    private static String key(String sessionId, String subscriptionId) {
+        return sessionId + "/" + subscriptionId;
+    }
+
+    private byte[] encode(boolean resync, List<InventoryChange> changes) {
+        try {
+            return objectMapper.writeValueAsBytes(new InventoryFeedMessage(resync, changes));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize inventory feed message", e);
+        }
+    }
+
+    private final class Subscriber {
+        final String key;
+        final String sessionId;
+        final String subscriptionId;
+        final Long siteId;
+        final String destination;
+
+        // Guarded by this
+        private final LinkedHashMap<Long, InventoryChange> pending = new LinkedHashMap<>();
+        private boolean inFlight;
+        private boolean resync;
+
+        Subscriber(String sessionId, String subscriptionId, Long siteId, String destination) {
+            this.key = key(sessionId, subscriptionId);
+            this.sessionId = sessionId;
+            this.subscriptionId = subscriptionId;
+            this.siteId = siteId;
+            this.destination = destination;
+        }
+
+        synchronized int pending() {
+            return pending.size();
+        }
+
+        synchronized boolean inFlight() {
+            return inFlight;
+        }
+
+        synchronized boolean hasWork() {
+            return !inFlight && (resync || !pending.isEmpty());
+        }
+
+        synchronized void handled() {
+            inFlight = false;
+        }
+
+        /**
+         * Send this flush's site batch, sharing the encoded frame with the other subscribers of the site
+         * when this one is caught up; otherwise fold it into the private queue.
+         */
+        void deliver(List<InventoryChange> batch, Map<Long, byte[]> encoded) {
+            byte[] payload;
+            synchronized (this) {
+                if (!inFlight && !resync && pending.isEmpty() && !batch.isEmpty() && batch.size() <= MAX_MESSAGE_CHANGES) {
+                    payload = encoded.computeIfAbsent(siteId, id -> encode(false, batch));
+                } else {
+                    for (InventoryChange change : batch) {
+                        if (pending.merge(change.getItemId(), change, InventoryFeedService::latest) != change) {
+                            conflated.increment();
+                        }
+                    }
+                    if (pending.size() > maxPending) {
+                        dropped.increment(pending.size());
+                        pending.clear();
+                        if (!resync) {
+                            resync = true;
+                            resyncs.increment();
+                        }
+                    }
+                    if (inFlight || (!resync && pending.isEmpty())) {
+                        return;
+                    }
+                    payload = encode(resync, drain());
+                    resync = false;
+                }
+                inFlight = true;
+            }
+            send(payload);
+        }
+
+        private List<InventoryChange> drain() {
+            List<InventoryChange> changes = new ArrayList<>(Math.min(pending.size(), MAX_MESSAGE_CHANGES));
+            Iterator<InventoryChange> it = pending.values().iterator();
+            while (it.hasNext() && changes.size() < MAX_MESSAGE_CHANGES) {
+                changes.add(it.next());
+                it.remove();
+            }
+            return changes;
+        }
+
+        private void send(byte[] payload) {
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headers.setSessionId(sessionId);
+            headers.setSubscriptionId(subscriptionId);
+            headers.setDestination(destination);
+            headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            headers.setHeader(SUBSCRIBER_HEADER, key);
+            try {
+                clientOutboundChannel.send(MessageBuilder.createMessage(payload, headers.getMessageHeaders()));
+                frames.increment();
+            } catch (RuntimeException e) {
+                log.warn("Cannot send inventory feed frame to session {}", sessionId, e);
+                handled();
+            }
+        }
+    }
+}
@@ -1,23 +1,170 @@
 package com.anode.storage.service;
 
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
 
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.WriterException;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
 
+/**
+ * QR label rendering.
+ *
+ * A label depends only on its payload, so rendered PNGs are cached by payload and identified by a
+ * content hash (the ETag). Label sheets encode their codes in parallel on a bounded pool and draw
+ * them into a single 1-bit image, so a sheet costs one PNG encode however many labels it holds.
+ */
 @Service
 public class InventoryService {
+
+    static final int QR_SIZE = 200;
+    public static final int MAX_SHEET_LABELS = 500;
+    static final int MAX_SHEET_COLUMNS = 10;
+
+    /**
+     * Bump when the rendering changes, so clients holding an old ETag get the new image
+     */
+    private static final String RENDER_VERSION = "v1:";
+
+    // 12 px gutter left and right of each code, caption below it
+    private static final int CELL_WIDTH = 224;
+    private static final int CAPTION_HEIGHT = 24;
+    private static final int CELL_HEIGHT = QR_SIZE + CAPTION_HEIGHT;
+    private static final Font CAPTION_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 14);
+
+    private static final long MAX_CACHE_BYTES = 32L * 1024 * 1024;
+
+    // QRCodeWriter keeps no state between calls, so one instance serves every render thread
+    private static final QRCodeWriter QR_WRITER = new QRCodeWriter();
+
+    private final Cache<String, byte[]> rendered;
+    private final ExecutorService renderPool;
+
+    public InventoryService(MeterRegistry registry) {
+        this.rendered = Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHE_BYTES)
+            .weigher((String text, byte[] png) -> png.length + text.length())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, rendered, "qr");
+        this.renderPool = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderPool.shutdownNow();
+    }
+
     public byte[] generateQrCode(String text) throws Exception {
+        byte[] png = rendered.getIfPresent(text);
+        if (png == null) {
+            png = renderPng(text);
+            rendered.put(text, png);
+        }
+        return png;
+    }
+
+    /**
+     * Strong ETag of the label for this payload, known without rendering it
+     */
+    public String qrEtag(String text) {
+        return "\"" + DigestUtils.md5DigestAsHex((RENDER_VERSION + text).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static byte[] renderPng(String text) throws WriterException, IOException {
         BitMatrix matrix = new MultiFormatWriter()
-                .encode(text, BarcodeFormat.QR_CODE, 200, 200);
+                .encode(text, BarcodeFormat.QR_CODE, QR_SIZE, QR_SIZE);
 
         ByteArrayOutputStream out = new ByteArrayOutputStream();
         MatrixToImageWriter.writeToStream(matrix, "PNG", out);
         return out.toByteArray();
     }
 
+    /**
+     * Render one PNG sheet with a QR code and its caption per payload, laid out row by row
+     */
+    public byte[] renderLabelSheet(List<String> codes, int columns) throws IOException {
+        if (codes.isEmpty() || codes.size() > MAX_SHEET_LABELS) {
+            throw new IllegalArgumentException("A label sheet holds 1 to " + MAX_SHEET_LABELS + " labels");
+        }
+        if (columns < 1 || columns > MAX_SHEET_COLUMNS) {
+            throw new IllegalArgumentException("columns must be between 1 and " + MAX_SHEET_COLUMNS);
+        }
+
+        List<Future<BitMatrix>> encoded = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            encoded.add(renderPool.submit(() -> QR_WRITER.encode(code, BarcodeFormat.QR_CODE, QR_SIZE, QR_SIZE)));
+        }
+
+        int rows = (codes.size() + columns - 1) / columns;
+        BufferedImage sheet = new BufferedImage(columns * CELL_WIDTH, rows * CELL_HEIGHT, BufferedImage.TYPE_BYTE_BINARY);
+        Graphics2D g = sheet.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, sheet.getWidth(), sheet.getHeight());
+            g.setColor(Color.BLACK);
+            g.setFont(CAPTION_FONT);
+
+            for (int i = 0; i < codes.size(); i++) {
+                int x = (i % columns) * CELL_WIDTH + (CELL_WIDTH - QR_SIZE) / 2;
+                int y = (i / columns) * CELL_HEIGHT;
+                drawMatrix(sheet, await(encoded, i), x, y);
+                g.drawString(codes.get(i), x + 4, y + QR_SIZE + CAPTION_HEIGHT - 8);
+            }
+        } finally {
+            g.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(sheet, "PNG", out);
+        return out.toByteArray();
+    }
+
+    private static BitMatrix await(List<Future<BitMatrix>> encoded, int index) throws IOException {
+        try {
+            return encoded.get(index).get();
+        } catch (InterruptedException e) {
+            encoded.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IOException("Label rendering interrupted", e);
+        } catch (ExecutionException e) {
+            encoded.forEach(f -> f.cancel(true));
+            throw new IllegalArgumentException("Cannot encode label: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static void drawMatrix(BufferedImage sheet, BitMatrix matrix, int x, int y) {
+        int black = Color.BLACK.getRGB();
+        for (int my = 0; my < matrix.getHeight(); my++) {
+            for (int mx = 0; mx < matrix.getWidth(); mx++) {
+                if (matrix.get(mx, my)) {
+                    sheet.setRGB(x + mx, y + my, black);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,80 @@
+package com.anode.storage.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.anode.storage.dto.ItemSort;
+import com.anode.storage.entity.core.StorageItem;
+
+/**
+ * Position of the last row returned by a keyset-paginated item listing.
+ * Encoded as an opaque URL-safe token so clients cannot depend on its layout.
+ */
+final class ItemCursor {
+
+    /**
+     * Lower bound used for the first page of an expiration-ordered listing
+     */
+    static final LocalDate FIRST_DATE = LocalDate.of(1, 1, 1);
+
+    private final ItemSort sort;
+    private final LocalDate expirationDate;
+    private final long lastId;
+
+    private ItemCursor(ItemSort sort, LocalDate expirationDate, long lastId) {
+        this.sort = sort;
+        this.expirationDate = expirationDate;
+        this.lastId = lastId;
+    }
+
+    static ItemCursor first(ItemSort sort) {
+        return new ItemCursor(sort, sort == ItemSort.EXPIRATION ? FIRST_DATE : null, 0L);
+    }
+
+    /**
+     * Cursor positioned on an id, also used by history listings keyed on their own id
+     */
+    static ItemCursor ofId(long lastId) {
+        return new ItemCursor(ItemSort.ID, null, lastId);
+    }
+
+    static ItemCursor after(ItemSort sort, StorageItem item) {
+        LocalDate date = sort == ItemSort.EXPIRATION && item.getBatchInfo() != null
+            ? item.getBatchInfo().getExpirationDate()
+            : null;
+        return new ItemCursor(sort, date, item.getId());
+    }
+
+    /**
+     * Expiration date of the last row, or null once the listing has reached
+     * the batches without an expiration date
+     */
+    LocalDate getExpirationDate() {
+        return expirationDate;
+    }
+
+    long getLastId() {
+        return lastId;
+    }
+
+    String encode() {
+        String raw = sort.name() + ":" + (expirationDate != null ? expirationDate : "") + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ItemCursor decode(String token, ItemSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            if (parts.length != 3 || ItemSort.valueOf(parts[0]) != expectedSort) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            LocalDate date = parts[1].isEmpty() ? null : LocalDate.parse(parts[1]);
+            return new ItemCursor(expectedSort, date, Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -1,13 +1,28 @@
 package com.anode.storage.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.anode.storage.dto.InventoryChange;
+import com.anode.storage.dto.PlacementConflict;
+import com.anode.storage.dto.StockMove;
 import com.anode.storage.entity.core.StorageItem;
 import com.anode.storage.entity.core.User;
 import com.anode.storage.entity.location.Location;
 import com.anode.storage.entity.safety.StockLog;
+import com.anode.storage.event.InventoryChangedEvent;
 import com.anode.storage.repository.LocationRepository;
+import com.anode.storage.repository.StockLevel;
 import com.anode.storage.repository.StockLogRepository;
 import com.anode.storage.repository.StorageItemRepository;
 import com.anode.storage.repository.UserRepository;
@@ -18,33 +33,189 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class LocationService {
 
+    static final int MAX_BULK_MOVES = 5000;
+    // Keeps the id lists of a large relocation well under the bind parameter limit
+    private static final int RELOCATE_CHUNK = 1000;
+
     private final StockLogRepository logRepo;
     private final StorageItemRepository itemRepo;
     private final LocationRepository locationRepo;
     private final UserRepository userRepo;
+    private final PlacementService placementService;
+    private final ApplicationEventPublisher events;
 
     @Transactional
     public void moveItem(Long itemId, Long fromLocId, Long toLocId, double amount, Long userId) {
-        // Load entities
-        StorageItem item = itemRepo.findById(itemId)
-            .orElseThrow(() -> new RuntimeException("Item not found: " + itemId));
-        Location fromLoc = fromLocId != null ? locationRepo.findById(fromLocId).orElse(null) : null;
-        Location toLoc = toLocId != null ? locationRepo.findById(toLocId).orElse(null) : null;
+        moveItems(List.of(new StockMove(itemId, fromLocId, toLocId, amount)), userId, false);
+    }
+
+    /**
+     * Apply many moves in one transaction.
+     * Items and locations are resolved with one IN query each, item updates and
+     * StockLog inserts are flushed as JDBC batches.
+     *
+     * A move that would store incompatible hazard classes together rejects the whole request with
+     * PlacementConflictException, unless the conflicts are acknowledged: then the moves are applied
+     * and each conflict is written into the stock log note of its move.
+     */
+    @Transactional
+    public int moveItems(List<StockMove> moves, Long userId, boolean acknowledgeConflicts) {
+        if (moves.isEmpty()) {
+            return 0;
+        }
+        if (moves.size() > MAX_BULK_MOVES) {
+            throw new IllegalArgumentException("Too many moves in one request: " + moves.size()
+                + " (max " + MAX_BULK_MOVES + ")");
+        }
+
         User user = userRepo.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found: " + userId));
 
-        // Update item location
-        item.setLocation(toLoc);
-        itemRepo.save(item);
+        Set<Long> itemIds = new HashSet<>();
+        Set<Long> locationIds = new HashSet<>();
+        for (StockMove move : moves) {
+            itemIds.add(move.getItemId());
+            if (move.getFromLocationId() != null) {
+                locationIds.add(move.getFromLocationId());
+            }
+            if (move.getToLocationId() != null) {
+                locationIds.add(move.getToLocationId());
+            }
+        }
+        Map<Long, StorageItem> items = itemRepo.findAllWithReferenceById(itemIds).stream()
+            .collect(Collectors.toMap(StorageItem::getId, Function.identity()));
+        Map<Long, Location> locations = locationRepo.findAllById(locationIds).stream()
+            .collect(Collectors.toMap(Location::getId, Function.identity()));
+        PlacementService.Check placement = placementService.open(moves.stream()
+            .map(StockMove::getToLocationId)
+            .filter(id -> id != null)
+            .collect(Collectors.toSet()));
+
+        List<StockLog> logs = new ArrayList<>(moves.size());
+        List<InventoryChange> changes = new ArrayList<>(moves.size());
+        for (StockMove move : moves) {
+            StorageItem item = items.get(move.getItemId());
+            if (item == null) {
+                throw new RuntimeException("Item not found: " + move.getItemId());
+            }
+            Location fromLoc = resolve(locations, move.getFromLocationId());
+            Location toLoc = resolve(locations, move.getToLocationId());
 
-        // Create stock log using entity relationships
-        StockLog log = new StockLog();
-        log.setProduct(item);
-        log.setFromLocation(fromLoc);
-        log.setToLocation(toLoc);
-        log.setAmount(amount);
-        log.setUser(user);
+            int conflictsBefore = placement.getConflicts().size();
+            if (toLoc != null && (item.getLocation() == null || !toLoc.getId().equals(item.getLocation().getId()))) {
+                placement.place(item.getId(), PlacementService.hazardClassOf(item), toLoc.getId());
+            }
+            List<PlacementConflict> moveConflicts =
+                placement.getConflicts().subList(conflictsBefore, placement.getConflicts().size());
+
+            // Update item location (flushed by dirty checking)
+            Long previousLocationId = item.getLocation() != null ? item.getLocation().getId() : null;
+            item.setLocation(toLoc);
+            changes.add(InventoryChange.of(item, previousLocationId, false));
+
+            StockLog log = new StockLog();
+            log.setProduct(item);
+            log.setFromLocation(fromLoc);
+            log.setToLocation(toLoc);
+            log.setAmount(move.getAmount());
+            log.setUser(user);
+            if (!moveConflicts.isEmpty()) {
+                log.setNote(conflictNote(moveConflicts));
+            }
+            logs.add(log);
+        }
+
+        if (!placement.getConflicts().isEmpty() && !acknowledgeConflicts) {
+            throw new PlacementConflictException(placement.getConflicts());
+        }
+        logRepo.saveAll(logs);
+        events.publishEvent(new InventoryChangedEvent(changes));
+        return logs.size();
+    }
+
+    /**
+     * Move every batch stored at one location to another
+     */
+    @Transactional
+    public int relocateLocation(Long fromLocId, Long toLocId, Long userId, boolean acknowledgeConflicts) {
+        return relocate(List.of(fromLocId), toLocId, userId, acknowledgeConflicts);
+    }
+
+    /**
+     * Move every batch stored anywhere in a room (or one cabinet of it) to a single location
+     */
+    @Transactional
+    public int relocateArea(Long siteId, String room, String cabinet, Long toLocId, Long userId,
+                            boolean acknowledgeConflicts) {
+        return relocate(locationRepo.findIdsByArea(siteId, room, cabinet), toLocId, userId, acknowledgeConflicts);
+    }
+
+    /**
+     * Set-based relocation: the batches at the sources are locked and read once, then moved with one
+     * INSERT ... SELECT for the stock logs and one UPDATE for the items per chunk of their ids, so a batch
+     * moved in or out concurrently is either logged and moved or left alone. Returns the number of batches moved.
+     * Everything moved ends up on one location, so the hazard classes of all sources are checked
+     * against the destination and against each other, from one aggregate query.
+     */
+    private int relocate(Collection<Long> fromLocIds, Long toLocId, Long userId, boolean acknowledgeConflicts) {
+        Set<Long> sources = new HashSet<>(fromLocIds);
+        sources.remove(toLocId);
+        if (sources.isEmpty()) {
+            return 0;
+        }
+        Location toLoc = locationRepo.findById(toLocId)
+            .orElseThrow(() -> new RuntimeException("Location not found: " + toLocId));
+        User user = userRepo.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+
+        Set<Long> checked = new HashSet<>(sources);
+        checked.add(toLocId);
+        PlacementService.Check placement = placementService.open(checked);
+        Set<Long> incoming = new HashSet<>();
+        for (Long source : sources) {
+            incoming.addAll(placement.classesAt(source));
+        }
+        for (Long hazardClassId : incoming) {
+            placement.place(null, hazardClassId, toLocId);
+        }
+        String note = "Relocated to location " + toLocId;
+        if (!placement.getConflicts().isEmpty()) {
+            if (!acknowledgeConflicts) {
+                throw new PlacementConflictException(placement.getConflicts());
+            }
+            note += "; " + conflictNote(placement.getConflicts());
+        }
+
+        List<StockLevel> moved = itemRepo.lockStockLevelsAt(sources);
+        List<Long> ids = moved.stream().map(StockLevel::getId).toList();
+        int count = 0;
+        for (int from = 0; from < ids.size(); from += RELOCATE_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + RELOCATE_CHUNK, ids.size()));
+            // Logs first: they read each batch's current location as from_location
+            logRepo.insertRelocationLogs(chunk, toLoc, user, note);
+            count += itemRepo.relocate(chunk, toLoc);
+        }
+        events.publishEvent(new InventoryChangedEvent(moved.stream()
+            .map(level -> new InventoryChange(level.getId(), level.getReferenceId(), toLocId, level.getLocationId(),
+                level.getQuantity(), level.getStatus(), false))
+            .toList()));
+        return count;
+    }
+
+    private static String conflictNote(List<PlacementConflict> conflicts) {
+        return "Hazard conflict acknowledged: " + conflicts.stream()
+            .map(PlacementConflict::toString)
+            .collect(Collectors.joining("; "));
+    }
 
-        logRepo.save(log);
+    private static Location resolve(Map<Long, Location> locations, Long id) {
+        if (id == null) {
+            return null;
+        }
+        Location location = locations.get(id);
+        if (location == null) {
+            throw new RuntimeException("Location not found: " + id);
+        }
+        return location;
     }
 }
@@ -0,0 +1,98 @@
+package com.anode.storage.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.anode.storage.cluster.ClusterRelay;
+import com.anode.storage.dto.LowStockDelta;
+import com.anode.storage.event.LowStockCrossedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Pushes committed low-stock crossings to /topic/low-stock.
+ *
+ * Crossings are collected per reference and flushed on a short interval, so a burst of scans on one
+ * reference becomes a single delta with its latest state, and a reference that dipped below its minimum
+ * and recovered within the same interval sends nothing. Each flush is one message carrying all deltas.
+ * Crossings committed on other nodes arrive through the ClusterRelay and are coalesced the same way.
+ */
+@Service
+@RequiredArgsConstructor
+public class LowStockNotifier {
+
+    static final String TOPIC = "/topic/low-stock";
+    static final String CLUSTER_CHANNEL = "low-stock";
+
+    private final SimpMessagingTemplate messaging;
+    private final ClusterRelay relay;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void subscribe() {
+        relay.subscribe(CLUSTER_CHANNEL, payload -> {
+            try {
+                add(objectMapper.treeToValue(payload, LowStockDelta.class));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed low-stock delta", e);
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onCrossed(LowStockCrossedEvent event) {
+        LowStockDelta delta = new LowStockDelta(event.getReferenceId(), event.isLowStock(),
+            event.getQuantity(), event.getMinStock());
+        add(delta);
+        relay.publish(CLUSTER_CHANNEL, delta);
+    }
+
+    private void add(LowStockDelta delta) {
+        pending.merge(delta.getReferenceId(), new Pending(!delta.isLowStock(), delta), Pending::then);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.stock.low-stock-coalesce-ms:500}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<LowStockDelta> deltas = new ArrayList<>();
+        for (Long referenceId : pending.keySet()) {
+            Pending p = pending.remove(referenceId);
+            if (p != null && p.wasLow != p.latest.isLowStock()) {
+                deltas.add(p.latest);
+            }
+        }
+        if (!deltas.isEmpty()) {
+            messaging.convertAndSend(TOPIC, deltas);
+        }
+    }
+
+    /**
+     * State before the first crossing of the interval, and the latest one
+     */
+    private static final class Pending {
+        final boolean wasLow;
+        final LowStockDelta latest;
+
+        Pending(boolean wasLow, LowStockDelta latest) {
+            this.wasLow = wasLow;
+            this.latest = latest;
+        }
+
+        Pending then(Pending next) {
+            return new Pending(wasLow, next.latest);
+        }
+    }
+}
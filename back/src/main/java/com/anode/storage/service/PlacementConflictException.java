@@ -0,0 +1,26 @@
+package com.anode.storage.service;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import com.anode.storage.dto.PlacementConflict;
+
+/**
+ * A move or relocation would put incompatible hazard classes on the same location
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class PlacementConflictException extends RuntimeException {
+
+    private final transient List<PlacementConflict> conflicts;
+
+    public PlacementConflictException(List<PlacementConflict> conflicts) {
+        super("Incompatible placement: " + conflicts);
+        this.conflicts = conflicts;
+    }
+
+    public List<PlacementConflict> getConflicts() {
+        return conflicts;
+    }
+}
@@ -0,0 +1,85 @@
+package com.anode.storage.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+
+import com.anode.storage.dto.PlacementConflict;
+import com.anode.storage.entity.core.StorageItem;
+import com.anode.storage.entity.safety.HazardClass;
+import com.anode.storage.repository.LocationHazard;
+import com.anode.storage.repository.StorageItemRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Hazard segregation check for moves.
+ *
+ * The distinct hazard classes already at the destinations are read with one aggregate query,
+ * then each incoming batch is checked against them in memory through the incompatibility matrix.
+ * Batches placed during the same check count as present for the ones after them.
+ */
+@Service
+@RequiredArgsConstructor
+public class PlacementService {
+
+    private final StorageItemRepository itemRepo;
+    private final StorageRuleService ruleService;
+
+    public Check open(Collection<Long> locationIds) {
+        Map<Long, Set<Long>> present = new HashMap<>();
+        if (!locationIds.isEmpty()) {
+            for (LocationHazard row : itemRepo.findHazardClassesAt(locationIds)) {
+                present.computeIfAbsent(row.getLocationId(), id -> new HashSet<>()).add(row.getHazardClassId());
+            }
+        }
+        return new Check(present);
+    }
+
+    public static Long hazardClassOf(StorageItem item) {
+        HazardClass hazardClass = item.getReference() != null ? item.getReference().getHazardClass() : null;
+        // getId() on a lazy proxy does not load it
+        return hazardClass != null ? hazardClass.getId() : null;
+    }
+
+    public final class Check {
+
+        private final Map<Long, Set<Long>> present;
+        private final List<PlacementConflict> conflicts = new ArrayList<>();
+
+        private Check(Map<Long, Set<Long>> present) {
+            this.present = present;
+        }
+
+        /**
+         * Check one batch against its destination and record it there
+         */
+        public void place(Long itemId, Long hazardClassId, Long locationId) {
+            if (hazardClassId == null || locationId == null) {
+                return;
+            }
+            Set<Long> atLocation = present.computeIfAbsent(locationId, id -> new HashSet<>());
+            List<Integer> others = new ArrayList<>(atLocation.size());
+            for (Long other : atLocation) {
+                others.add(other.intValue());
+            }
+            ruleService.findConflicts(hazardClassId.intValue(), others).forEach((other, reason) ->
+                conflicts.add(new PlacementConflict(itemId, locationId, hazardClassId, other.longValue(), reason)));
+            atLocation.add(hazardClassId);
+        }
+
+        public Set<Long> classesAt(Long locationId) {
+            return Set.copyOf(present.getOrDefault(locationId, Set.of()));
+        }
+
+        public List<PlacementConflict> getConflicts() {
+            return conflicts;
+        }
+    }
+}
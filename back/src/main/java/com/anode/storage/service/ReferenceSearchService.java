@@ -0,0 +1,92 @@
+package com.anode.storage.service;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.anode.storage.config.DatabasePlatform;
+import com.anode.storage.dto.CursorPage;
+import com.anode.storage.repository.ReferenceSearchRow;
+import com.anode.storage.repository.StorageReferenceRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Catalog search over name, SKU, CAS number, manufacturer/model and description.
+ *
+ * On PostgreSQL this uses the trigram and tsvector indexes from V12, ranked by relevance;
+ * elsewhere, or while V12 has not been applied, it falls back to a plain LIKE scan. The columns are checked
+ * once the application is ready, after the migrations have run. Results are ranked, so pages are offset based
+ * and limited to the first MAX_OFFSET hits, which is plenty for type-ahead.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceSearchService {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 50;
+    static final int MAX_OFFSET = 1000;
+
+    private final StorageReferenceRepository referenceRepository;
+    private final DatabasePlatform databasePlatform;
+    private volatile boolean ranked;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void detectSearchColumns() {
+        ranked = databasePlatform.isPostgres()
+            && databasePlatform.hasColumn("storage_references", "search_text")
+            && databasePlatform.hasColumn("storage_references", "search_vector");
+        if (databasePlatform.isPostgres() && !ranked) {
+            log.warn("storage_references has no search columns (migration V12 not applied), searching with LIKE");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ReferenceSearchRow> search(String query, String cursor, Integer size) {
+        String normalized = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int offset = decodeOffset(cursor);
+        String pattern = "%" + escapeLike(normalized) + "%";
+
+        // One extra row tells whether there is a next page
+        List<ReferenceSearchRow> rows = ranked
+            ? referenceRepository.searchRanked(normalized, pattern, limit + 1, offset)
+            : referenceRepository.searchPortable(pattern, PageRequest.of(0, offset + limit + 1))
+                .stream().skip(offset).toList();
+
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        int nextOffset = offset + limit;
+        return new CursorPage<>(rows.subList(0, limit), nextOffset < MAX_OFFSET ? Integer.toString(nextOffset) : null);
+    }
+
+    private static int decodeOffset(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(cursor);
+            if (offset < 0 || offset >= MAX_OFFSET) {
+                throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+            }
+            return offset;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+        }
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,143 @@
+package com.anode.storage.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.anode.storage.cluster.ClusterRelay;
+import com.anode.storage.dto.ScanResult;
+import com.anode.storage.entity.core.ProductType;
+import com.anode.storage.event.StorageItemChangedEvent;
+import com.anode.storage.repository.StorageItemRepository;
+import com.anode.storage.repository.StorageReferenceRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Resolves scanned codes: either a reference SKU or the {@code PREFIX-id} label printed on a batch.
+ *
+ * Hits are served from two bounded in-memory caches, one per key kind. Misses are not cached, so a
+ * newly created item resolves on its first scan. Item entries are evicted when the item is updated
+ * or deleted, on every node through the cluster relay; references have no update or delete path yet,
+ * so their entries only age out.
+ * Hit/miss counts are published as {@code cache.gets{cache=scan.sku|scan.item}}.
+ */
+@Service
+public class ScanService {
+
+    static final String CLUSTER_CHANNEL = "scan-cache";
+
+    /**
+     * Backstop against entries that were loaded while a change was committing, or whose
+     * invalidation the relay dropped
+     */
+    private static final Duration MAX_AGE = Duration.ofMinutes(30);
+
+    private final StorageReferenceRepository referenceRepository;
+    private final StorageItemRepository itemRepository;
+    private final ClusterRelay relay;
+    private final Cache<String, ScanResult> bySku;
+    private final Cache<Long, ScanResult> byItemId;
+    private final Timer resolveTimer;
+
+    public ScanService(StorageReferenceRepository referenceRepository,
+                       StorageItemRepository itemRepository,
+                       ClusterRelay relay,
+                       MeterRegistry registry,
+                       @Value("${storage.scan-cache.max-size:100000}") long maxSize) {
+        this.referenceRepository = referenceRepository;
+        this.itemRepository = itemRepository;
+        this.relay = relay;
+        this.bySku = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(MAX_AGE)
+            .recordStats()
+            .build();
+        this.byItemId = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(MAX_AGE)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, bySku, "scan.sku");
+        CaffeineCacheMetrics.monitor(registry, byItemId, "scan.item");
+        this.resolveTimer = Timer.builder("scan.resolve")
+            .publishPercentiles(0.5, 0.99)
+            .register(registry);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        relay.subscribe(CLUSTER_CHANNEL, payload -> byItemId.invalidate(payload.asLong()));
+    }
+
+    public Optional<ScanResult> resolve(String code) {
+        return resolveTimer.record(() -> {
+            String trimmed = code.trim();
+            // A SKU may look like a batch label, so fall back to it when no batch matches
+            Optional<ScanResult> item = resolveItemLabel(trimmed);
+            return item.isPresent() ? item : resolveSku(trimmed);
+        });
+    }
+
+    private Optional<ScanResult> resolveItemLabel(String code) {
+        int dash = code.lastIndexOf('-');
+        if (dash <= 0 || dash == code.length() - 1) {
+            return Optional.empty();
+        }
+        long id;
+        try {
+            id = Long.parseLong(code.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        String prefix = code.substring(0, dash);
+        if (!isPrefix(prefix)) {
+            return Optional.empty();
+        }
+
+        ScanResult result = byItemId.getIfPresent(id);
+        if (result == null) {
+            result = itemRepository.findWithReferenceById(id).map(ScanResult::of).orElse(null);
+            if (result == null) {
+                return Optional.empty();
+            }
+            byItemId.put(id, result);
+        }
+        return prefix.equals(result.getProductType().getPrefix()) ? Optional.of(result) : Optional.empty();
+    }
+
+    private Optional<ScanResult> resolveSku(String sku) {
+        ScanResult result = bySku.getIfPresent(sku);
+        if (result == null) {
+            result = referenceRepository.findBySku(sku).map(ScanResult::of).orElse(null);
+            if (result == null) {
+                return Optional.empty();
+            }
+            bySku.put(sku, result);
+        }
+        return Optional.of(result);
+    }
+
+    private static boolean isPrefix(String prefix) {
+        for (ProductType type : ProductType.values()) {
+            if (type.getPrefix().equals(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(StorageItemChangedEvent event) {
+        byItemId.invalidate(event.getItemId());
+        relay.publish(CLUSTER_CHANNEL, event.getItemId());
+    }
+}
@@ -0,0 +1,294 @@
+package com.anode.storage.service;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.anode.storage.cluster.JobLock;
+import com.anode.storage.dto.SegregationAuditStatus;
+import com.anode.storage.dto.SegregationAuditStatus.State;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Site-wide hazard segregation audit.
+ *
+ * One query streams the distinct (location, hazard class) pairs of everything on the shelves, ordered by
+ * location, into a compact per-location table. The table is split across a fork/join pool and every
+ * location's class set is checked pairwise against one snapshot of the incompatibility matrix.
+ * Each offending location becomes one Notification; the unread ones from the previous run are replaced.
+ * A run holds a cluster-wide JobLock from start to end, so the nightly job fires on one node only.
+ */
+@Service
+@Slf4j
+public class SegregationAuditService {
+
+    static final String NOTIFICATION_TYPE = "SEGREGATION_VIOLATION";
+
+    private static final int SPLIT_THRESHOLD = 1024;
+    private static final int FETCH_SIZE = 10_000;
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private static final String PAIRS_SQL =
+        "SELECT DISTINCT i.location_id, r.hazard_class_id " +
+        "FROM storage_items i JOIN storage_references r ON r.id = i.reference_id " +
+        "WHERE i.location_id IS NOT NULL AND r.hazard_class_id IS NOT NULL " +
+        "AND i.status NOT IN ('DISPOSED', 'EMPTY') " +
+        "ORDER BY i.location_id";
+
+    private final JdbcTemplate jdbc;
+    private final StorageRuleService ruleService;
+    private final JobLock jobLock;
+    private final TransactionTemplate readOnlyTx;
+    private final TransactionTemplate writeTx;
+    private final ForkJoinPool pool;
+    private final ExecutorService launcher = Executors.newSingleThreadExecutor();
+    private final Timer timer;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong pairsRead = new AtomicLong();
+    private final AtomicLong locationsEvaluated = new AtomicLong();
+    private final AtomicLong lastViolations = new AtomicLong();
+    private volatile State state = State.IDLE;
+    private volatile LocalDateTime startedAt;
+    private volatile long locationsTotal;
+    private volatile long loadMs;
+    private volatile long evaluateMs;
+    private volatile long saveMs;
+    private volatile String error;
+
+    public SegregationAuditService(JdbcTemplate jdbc,
+                                   StorageRuleService ruleService,
+                                   JobLock jobLock,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry registry) {
+        this.jdbc = jdbc;
+        this.ruleService = ruleService;
+        this.jobLock = jobLock;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        this.timer = Timer.builder("audit.segregation").register(registry);
+        registry.gauge("audit.segregation.violations", lastViolations);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        launcher.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    public SegregationAuditStatus status() {
+        return new SegregationAuditStatus(state, startedAt, pairsRead.get(), locationsTotal,
+            locationsEvaluated.get(), lastViolations.get(), loadMs, evaluateMs, saveMs, error);
+    }
+
+    /**
+     * Start an audit in the background, unless one is already running
+     */
+    public SegregationAuditStatus start() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A segregation audit is already running");
+        }
+        launcher.execute(this::runClaimed);
+        return status();
+    }
+
+    @Scheduled(cron = "${storage.audit.segregation-cron:0 30 2 * * *}")
+    public void runScheduled() {
+        if (running.compareAndSet(false, true)) {
+            launcher.execute(this::runClaimed);
+        } else {
+            log.info("Skipping scheduled segregation audit, one is already running");
+        }
+    }
+
+    private void runClaimed() {
+        try {
+            // Load and save join this transaction, which holds the lock until the audit is done
+            writeTx.executeWithoutResult(status -> {
+                if (jobLock.tryLock(NOTIFICATION_TYPE)) {
+                    timer.record(this::audit);
+                } else {
+                    log.info("Skipping segregation audit, another node is running one");
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Segregation audit failed", e);
+            error = e.getMessage();
+            state = State.FAILED;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void audit() {
+        startedAt = LocalDateTime.now();
+        error = null;
+        pairsRead.set(0);
+        locationsEvaluated.set(0);
+        locationsTotal = 0;
+        loadMs = evaluateMs = saveMs = 0;
+
+        state = State.LOADING;
+        long t0 = System.nanoTime();
+        PairTable table = readOnlyTx.execute(status -> load());
+        locationsTotal = table.locationCount;
+        long t1 = System.nanoTime();
+        loadMs = TimeUnit.NANOSECONDS.toMillis(t1 - t0);
+
+        state = State.EVALUATING;
+        List<String> violations = pool.invoke(new Evaluate(table, ruleService.snapshot(), 0, table.locationCount));
+        long t2 = System.nanoTime();
+        evaluateMs = TimeUnit.NANOSECONDS.toMillis(t2 - t1);
+
+        state = State.SAVING;
+        writeTx.executeWithoutResult(status -> save(violations));
+        saveMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t2);
+
+        lastViolations.set(violations.size());
+        state = State.DONE;
+        log.info("Segregation audit: {} locations, {} violations (load {} ms, evaluate {} ms, save {} ms)",
+            locationsTotal, violations.size(), loadMs, evaluateMs, saveMs);
+    }
+
+    private PairTable load() {
+        PairTable table = new PairTable();
+        jdbc.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(PAIRS_SQL);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            table.add(rs.getLong(1), rs.getInt(2));
+            pairsRead.incrementAndGet();
+        });
+        return table.seal();
+    }
+
+    private void save(List<String> violations) {
+        jdbc.update("DELETE FROM notification WHERE type = ? AND read = FALSE", NOTIFICATION_TYPE);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.batchUpdate("INSERT INTO notification (type, message, read, created_at) VALUES (?, ?, FALSE, ?)",
+            violations, INSERT_BATCH_SIZE, (ps, message) -> {
+                ps.setString(1, NOTIFICATION_TYPE);
+                ps.setString(2, message);
+                ps.setTimestamp(3, now);
+            });
+    }
+
+    /**
+     * Locations and their distinct hazard classes in compressed-row form: the classes of location i
+     * are {@code classes[start[i] .. start[i + 1])}.
+     */
+    private static final class PairTable {
+        long[] locations = new long[1024];
+        int[] start = new int[1025];
+        int[] classes = new int[4096];
+        int locationCount;
+        int pairCount;
+
+        void add(long locationId, int hazardClassId) {
+            if (locationCount == 0 || locations[locationCount - 1] != locationId) {
+                if (locationCount == locations.length) {
+                    locations = Arrays.copyOf(locations, locationCount * 2);
+                    start = Arrays.copyOf(start, locationCount * 2 + 1);
+                }
+                locations[locationCount] = locationId;
+                start[locationCount] = pairCount;
+                locationCount++;
+            }
+            if (pairCount == classes.length) {
+                classes = Arrays.copyOf(classes, pairCount * 2);
+            }
+            classes[pairCount++] = hazardClassId;
+        }
+
+        PairTable seal() {
+            start[locationCount] = pairCount;
+            return this;
+        }
+    }
+
+    /**
+     * Checks a range of locations, splitting it in halves until it is small enough.
+     * Results are the notification messages of the offending locations.
+     */
+    private final class Evaluate extends RecursiveTask<List<String>> {
+
+        private final PairTable table;
+        private final IncompatibilityMatrix matrix;
+        private final int from;
+        private final int to;
+
+        Evaluate(PairTable table, IncompatibilityMatrix matrix, int from, int to) {
+            this.table = table;
+            this.matrix = matrix;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<String> compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                Evaluate left = new Evaluate(table, matrix, from, mid);
+                left.fork();
+                List<String> right = new Evaluate(table, matrix, mid, to).compute();
+                List<String> result = left.join();
+                result.addAll(right);
+                return result;
+            }
+
+            List<String> violations = new ArrayList<>();
+            for (int location = from; location < to; location++) {
+                StringBuilder message = null;
+                int end = table.start[location + 1];
+                for (int i = table.start[location]; i < end; i++) {
+                    for (int j = i + 1; j < end; j++) {
+                        int a = table.classes[i];
+                        int b = table.classes[j];
+                        if (matrix.incompatible(a, b)) {
+                            if (message == null) {
+                                message = new StringBuilder("Location ").append(table.locations[location])
+                                    .append(" stores incompatible hazard classes: ");
+                            } else {
+                                message.append("; ");
+                            }
+                            message.append(a).append(" / ").append(b);
+                            String reason = matrix.reason(a, b).orElse("");
+                            if (!reason.isEmpty()) {
+                                message.append(" (").append(reason).append(')');
+                            }
+                        }
+                    }
+                }
+                if (message != null) {
+                    violations.add(message.toString());
+                }
+            }
+            locationsEvaluated.addAndGet(to - from);
+            return violations;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.anode.storage.service;
+
+import java.util.Arrays;
+
+/**
+ * Append-only block of readings of one location, compressed the way Gorilla compresses time series.
+ *
+ * Timestamps (epoch milliseconds) are stored as the delta of their delta, which is zero or a few bits for
+ * a sensor on a steady cadence. Temperature and humidity are each XORed with their previous value and
+ * only the meaningful bits are kept, reusing the previous leading/trailing zero window when the new one
+ * fits inside it. A missing value is stored as NaN.
+ *
+ * Not thread safe; the owner serializes appends and reads.
+ */
+final class SensorChunk {
+
+    /**
+     * Fixed cost of a chunk besides its bit array, for memory accounting
+     */
+    static final int OVERHEAD_BYTES = 96;
+
+    /**
+     * Receives decoded points; NaN stands for a missing value
+     */
+    interface PointConsumer {
+        void accept(long millis, double temperature, double humidity);
+    }
+
+    private long[] words = new long[8];
+    private int bitCount;
+    private int count;
+    private long firstMillis;
+    private long lastMillis;
+    private long lastDelta;
+    private final ValueEncoder temperature = new ValueEncoder();
+    private final ValueEncoder humidity = new ValueEncoder();
+
+    int count() {
+        return count;
+    }
+
+    long firstMillis() {
+        return firstMillis;
+    }
+
+    long lastMillis() {
+        return lastMillis;
+    }
+
+    long sizeBytes() {
+        return OVERHEAD_BYTES + words.length * 8L;
+    }
+
+    /**
+     * Add a point; {@code millis} must not be before the last one and at most {@link Integer#MAX_VALUE}
+     * after it, which the owner guarantees by starting a new chunk.
+     */
+    void append(long millis, double temperatureValue, double humidityValue) {
+        if (count == 0) {
+            write(millis, 64);
+            firstMillis = millis;
+        } else if (count == 1) {
+            lastDelta = millis - lastMillis;
+            write(lastDelta, 32);
+        } else {
+            long delta = millis - lastMillis;
+            long dod = delta - lastDelta;
+            if (dod == 0) {
+                write(0b0, 1);
+            } else if (dod >= -64 && dod < 64) {
+                write(0b10, 2);
+                write(dod, 7);
+            } else if (dod >= -256 && dod < 256) {
+                write(0b110, 3);
+                write(dod, 9);
+            } else if (dod >= -2048 && dod < 2048) {
+                write(0b1110, 4);
+                write(dod, 12);
+            } else {
+                write(0b1111, 4);
+                write(dod, 32);
+            }
+            lastDelta = delta;
+        }
+        lastMillis = millis;
+        temperature.encode(Double.doubleToLongBits(temperatureValue));
+        humidity.encode(Double.doubleToLongBits(humidityValue));
+        count++;
+    }
+
+    /**
+     * Release the spare capacity once no more points will be appended
+     */
+    void seal() {
+        words = Arrays.copyOf(words, Math.max(1, (bitCount + 63) >>> 6));
+    }
+
+    void decode(PointConsumer consumer) {
+        Reader reader = new Reader();
+        ValueDecoder t = new ValueDecoder(reader);
+        ValueDecoder h = new ValueDecoder(reader);
+        long millis = 0;
+        long delta = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                millis = reader.read(64);
+            } else if (i == 1) {
+                delta = reader.read(32);
+                millis += delta;
+            } else {
+                long dod;
+                if (reader.read(1) == 0) {
+                    dod = 0;
+                } else if (reader.read(1) == 0) {
+                    dod = reader.readSigned(7);
+                } else if (reader.read(1) == 0) {
+                    dod = reader.readSigned(9);
+                } else if (reader.read(1) == 0) {
+                    dod = reader.readSigned(12);
+                } else {
+                    dod = reader.readSigned(32);
+                }
+                delta += dod;
+                millis += delta;
+            }
+            double temperatureValue = Double.longBitsToDouble(t.decode(i == 0));
+            double humidityValue = Double.longBitsToDouble(h.decode(i == 0));
+            consumer.accept(millis, temperatureValue, humidityValue);
+        }
+    }
+
+    // Bits are filled from the most significant end of each word
+    private void write(long value, int n) {
+        int needed = (bitCount + n + 63) >>> 6;
+        if (needed > words.length) {
+            words = Arrays.copyOf(words, Math.max(needed, words.length * 2));
+        }
+        if (n < 64) {
+            value &= (1L << n) - 1;
+        }
+        int index = bitCount >>> 6;
+        int free = 64 - (bitCount & 63);
+        if (n <= free) {
+            words[index] |= value << (free - n);
+        } else {
+            int rest = n - free;
+            words[index] |= value >>> rest;
+            words[index + 1] |= value << (64 - rest);
+        }
+        bitCount += n;
+    }
+
+    private final class ValueEncoder {
+        private long previous;
+        private int leading = -1;
+        private int trailing;
+
+        void encode(long bits) {
+            if (count == 0) {
+                write(bits, 64);
+                previous = bits;
+                return;
+            }
+            long xor = bits ^ previous;
+            previous = bits;
+            if (xor == 0) {
+                write(0b0, 1);
+                return;
+            }
+            int newLeading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int newTrailing = Long.numberOfTrailingZeros(xor);
+            if (leading >= 0 && newLeading >= leading && newTrailing >= trailing) {
+                write(0b10, 2);
+                write(xor >>> trailing, 64 - leading - trailing);
+            } else {
+                int significant = 64 - newLeading - newTrailing;
+                write(0b11, 2);
+                write(newLeading, 5);
+                write(significant - 1, 6);
+                write(xor >>> newTrailing, significant);
+                leading = newLeading;
+                trailing = newTrailing;
+            }
+        }
+    }
+
+    private final class Reader {
+        private int position;
+
+        long read(int n) {
+            int index = position >>> 6;
+            int free = 64 - (position & 63);
+            long value;
+            if (n <= free) {
+                value = words[index] >>> (free - n);
+            } else {
+                int rest = n - free;
+                value = (words[index] << rest) | (words[index + 1] >>> (64 - rest));
+            }
+            position += n;
+            return n == 64 ? value : value & ((1L << n) - 1);
+        }
+
+        long readSigned(int n) {
+            return (read(n) << (64 - n)) >> (64 - n);
+        }
+    }
+
+    private static final class ValueDecoder {
+        private final Reader reader;
+        private long previous;
+        private int leading;
+        private int trailing;
+
+        ValueDecoder(Reader reader) {
+            this.reader = reader;
+        }
+
+        long decode(boolean first) {
+            if (first) {
+                previous = reader.read(64);
+                return previous;
+            }
+            if (reader.read(1) == 0) {
+                return previous;
+            }
+            if (reader.read(1) == 1) {
+                leading = (int) reader.read(5);
+                trailing = 64 - leading - ((int) reader.read(6) + 1);
+            }
+            previous ^= reader.read(64 - leading - trailing) << trailing;
+            return previous;
+        }
+    }
+}
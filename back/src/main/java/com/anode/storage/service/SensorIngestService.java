@@ -0,0 +1,252 @@
+package com.anode.storage.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.anode.storage.dto.SensorReadingInput;
+import com.anode.storage.repository.LocationRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Buffered ingestion of SensorReading rows.
+ *
+ * Requests only append to a lock-free queue whose size is bounded by a CAS reservation, and are refused
+ * as a whole when the buffer is full. A single writer thread drains the queue and writes JDBC batches
+ * (with their rollup updates, in one transaction) when a full batch is waiting or the flush interval
+ * has passed. A slot is released only once its reading is written, so a slow or failing database
+ * fills the buffer and pushes back on the sensors.
+ */
+@Service
+@Slf4j
+public class SensorIngestService {
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long LOCATION_RELOAD_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofDays(1);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO sensor_reading (location_id, temperature, humidity, timestamp) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final LocationRepository locationRepo;
+    private final SensorRollupService rollupService;
+    private final SensorPartitionService partitionService;
+    private final ExcursionDetector excursionDetector;
+    private final SensorWindowService windowService;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final ConcurrentLinkedQueue<SensorReadingInput> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private volatile Set<Long> knownLocations = Set.of();
+    private volatile long locationsLoadedAt;
+    private volatile boolean stopping;
+    private Thread writer;
+
+    private final Counter accepted;
+    private final Counter refused;
+    private final Counter written;
+    private final Counter dropped;
+    private final Timer flushTimer;
+
+    public SensorIngestService(JdbcTemplate jdbc,
+                               LocationRepository locationRepo,
+                               SensorRollupService rollupService,
+                               SensorPartitionService partitionService,
+                               ExcursionDetector excursionDetector,
+                               SensorWindowService windowService,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry registry,
+                               @Value("${storage.sensors.buffer-capacity:200000}") int capacity,
+                               @Value("${storage.sensors.batch-size:5000}") int batchSize,
+                               @Value("${storage.sensors.flush-interval-ms:250}") long flushIntervalMs) {
+        this.jdbc = jdbc;
+        this.locationRepo = locationRepo;
+        this.rollupService = rollupService;
+        this.partitionService = partitionService;
+        this.excursionDetector = excursionDetector;
+        this.windowService = windowService;
+        this.transactionTemplate = transactionTemplate;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.accepted = registry.counter("sensor.ingest.accepted");
+        this.refused = registry.counter("sensor.ingest.refused");
+        this.written = registry.counter("sensor.ingest.written");
+        this.dropped = registry.counter("sensor.ingest.dropped");
+        this.flushTimer = registry.timer("sensor.ingest.flush");
+        registry.gauge("sensor.ingest.buffered", buffered);
+    }
+
+    @PostConstruct
+    void start() {
+        writer = new Thread(this::writeLoop, "sensor-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        stopping = true;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * Buffer a batch of readings, all or nothing.
+     * Returns false when the buffer has no room for the whole batch; nothing is queued then.
+     */
+    public boolean offer(List<SensorReadingInput> readings) {
+        if (readings.isEmpty()) {
+            return true;
+        }
+        validate(readings);
+
+        int n = readings.size();
+        int current;
+        do {
+            current = buffered.get();
+            if (current + n > capacity) {
+                refused.increment(n);
+                return false;
+            }
+        } while (!buffered.compareAndSet(current, current + n));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (SensorReadingInput reading : readings) {
+            if (reading.getTimestamp() == null) {
+                reading.setTimestamp(now);
+            }
+            queue.add(reading);
+        }
+        accepted.increment(n);
+        if (current + n >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+        // Alerts come from the request thread, not the writer, so they do not wait for the next flush.
+        // The readings are accepted at this point: nothing here may fail the request.
+        try {
+            excursionDetector.evaluate(readings);
+        } catch (RuntimeException e) {
+            log.error("Excursion evaluation failed for {} readings", n, e);
+        }
+        return true;
+    }
+
+    public int buffered() {
+        return buffered.get();
+    }
+
+    // A bad location id or a timestamp without a partition would fail the whole JDBC batch later,
+    // so they are refused up front
+    private void validate(List<SensorReadingInput> readings) {
+        LocalDateTime oldest = partitionService.retentionCutoff();
+        LocalDateTime newest = LocalDateTime.now().plus(MAX_CLOCK_SKEW);
+        for (SensorReadingInput reading : readings) {
+            if (reading.getLocationId() == null) {
+                throw new IllegalArgumentException("locationId is required");
+            }
+            LocalDateTime timestamp = reading.getTimestamp();
+            if (timestamp != null && (timestamp.isBefore(oldest) || timestamp.isAfter(newest))) {
+                throw new IllegalArgumentException("Reading timestamp out of range: " + timestamp);
+            }
+            if (!knownLocations.contains(reading.getLocationId()) && !reloadLocations().contains(reading.getLocationId())) {
+                throw new IllegalArgumentException("Location not found: " + reading.getLocationId());
+            }
+        }
+    }
+
+    private synchronized Set<Long> reloadLocations() {
+        long now = System.nanoTime();
+        if (locationsLoadedAt == 0 || now - locationsLoadedAt > LOCATION_RELOAD_INTERVAL_NANOS) {
+            knownLocations = Set.copyOf(locationRepo.findAllIds());
+            locationsLoadedAt = now;
+        }
+        return knownLocations;
+    }
+
+    private void writeLoop() {
+        List<SensorReadingInput> batch = new ArrayList<>(batchSize);
+        long lastFlush = System.nanoTime();
+        while (true) {
+            boolean due = System.nanoTime() - lastFlush >= flushIntervalNanos;
+            if (buffered.get() >= batchSize || (due && buffered.get() > 0) || (stopping && buffered.get() > 0)) {
+                drain(batch);
+                write(batch);
+                batch.clear();
+                lastFlush = System.nanoTime();
+                continue;
+            }
+            if (stopping) {
+                return;
+            }
+            if (due) {
+                lastFlush = System.nanoTime();
+            }
+            LockSupport.parkNanos(flushIntervalNanos);
+        }
+    }
+
+    private void drain(List<SensorReadingInput> batch) {
+        SensorReadingInput reading;
+        while (batch.size() < batchSize && (reading = queue.poll()) != null) {
+            batch.add(reading);
+        }
+    }
+
+    private void write(List<SensorReadingInput> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                    insert(batch);
+                    rollupService.record(batch);
+                }));
+                written.increment(batch.size());
+                windowService.append(batch);
+                break;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS || stopping) {
+                    log.error("Dropping {} sensor readings after {} failed writes", batch.size(), attempt, e);
+                    dropped.increment(batch.size());
+                    break;
+                }
+                log.warn("Sensor batch write failed, retrying", e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200L * attempt));
+            }
+        }
+        buffered.addAndGet(-batch.size());
+    }
+
+    private void insert(List<SensorReadingInput> batch) {
+        jdbc.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, reading) -> {
+            ps.setLong(1, reading.getLocationId());
+            ps.setObject(2, reading.getTemperature());
+            ps.setObject(3, reading.getHumidity());
+            ps.setTimestamp(4, Timestamp.valueOf(reading.getTimestamp()));
+        });
+    }
+}
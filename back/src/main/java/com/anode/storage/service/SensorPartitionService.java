@@ -0,0 +1,227 @@
+package com.anode.storage.service;
+
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.anode.storage.config.DatabasePlatform;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the range partitions of sensor_reading (V15) in shape, PostgreSQL only.
+ *
+ * Partitions are created a few periods ahead as standalone tables and then attached, which only takes
+ * a SHARE UPDATE EXCLUSIVE lock on the parent, so inserts keep flowing. Retention makes sure the
+ * rollups of an expired partition exist, then detaches it CONCURRENTLY and drops it: no row deletes,
+ * no vacuum debt, and the writer is never blocked. A detach left pending by an interrupted run is
+ * finalized, and a partition detached but not dropped is dropped, on the next run.
+ */
+@Service
+@Slf4j
+public class SensorPartitionService {
+
+    public enum Period { WEEK, MONTH }
+
+    static final String PARENT = "sensor_reading";
+    private static final String PREFIX = PARENT + "_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    // Partitions, each with whether an interrupted DETACH ... CONCURRENTLY left it pending
+    private static final String LIST_PARTITIONS =
+        "SELECT c.relname, i.inhdetachpending FROM pg_inherits i " +
+        "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+        "WHERE p.relname = '" + PARENT + "' ORDER BY c.relname";
+
+    // Tables named like a partition but attached to nothing: detached by a run that failed to drop them
+    private static final String LIST_DETACHED =
+        "SELECT c.relname FROM pg_class c " +
+        "WHERE c.relkind = 'r' AND c.relname LIKE '" + PREFIX + "%' AND pg_table_is_visible(c.oid) " +
+        "AND NOT EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid) ORDER BY c.relname";
+
+    private static final String IS_PARTITIONED =
+        "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table t JOIN pg_class c ON c.oid = t.partrelid " +
+        "WHERE c.relname = '" + PARENT + "')";
+
+    // Buckets of the partition that have no rollup row yet, rebuilt from its raw readings
+    private static final String BACKFILL_ROLLUPS =
+        "INSERT INTO sensor_rollup (location_id, resolution, bucket_start, " +
+        "temperature_min, temperature_max, temperature_sum, temperature_count, " +
+        "humidity_min, humidity_max, humidity_sum, humidity_count) " +
+        "SELECT location_id, r.resolution, date_trunc(r.unit, timestamp) AS bucket, " +
+        "MIN(temperature), MAX(temperature), SUM(temperature), COUNT(temperature), " +
+        "MIN(humidity), MAX(humidity), SUM(humidity), COUNT(humidity) " +
+        "FROM %s CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS r(resolution, unit) " +
+        "WHERE location_id IS NOT NULL " +
+        "GROUP BY location_id, r.resolution, bucket " +
+        "ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbc;
+    private final DatabasePlatform databasePlatform;
+    private final Period period;
+    private final int periodsAhead;
+    private final int retentionDays;
+
+    public SensorPartitionService(JdbcTemplate jdbc,
+                                  DatabasePlatform databasePlatform,
+                                  @Value("${storage.sensors.partition-period:MONTH}") Period period,
+                                  @Value("${storage.sensors.partitions-ahead:2}") int periodsAhead,
+                                  @Value("${storage.sensors.retention-days:180}") int retentionDays) {
+        this.jdbc = jdbc;
+        this.databasePlatform = databasePlatform;
+        this.period = period;
+        this.periodsAhead = periodsAhead;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Oldest timestamp still kept as raw readings; ingest refuses anything older
+     */
+    public LocalDateTime retentionCutoff() {
+        return LocalDate.now().minusDays(retentionDays).atStartOfDay();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${storage.sensors.partition-cron:0 15 * * * *}")
+    public void maintain() {
+        if (!databasePlatform.isPostgres()) {
+            return;
+        }
+        try {
+            if (!isPartitioned()) {
+                log.warn("{} is not partitioned (migration V15 not applied), skipping partition maintenance", PARENT);
+                return;
+            }
+            createAhead();
+            dropExpired();
+        } catch (DataAccessException e) {
+            // Retried on the next run; partitions are created well ahead of need
+            log.error("Sensor partition maintenance failed", e);
+        }
+    }
+
+    void createAhead() {
+        LocalDate start = periodStart(LocalDate.now());
+        for (int i = 0; i <= periodsAhead; i++) {
+            LocalDate end = next(start);
+            String name = PREFIX + SUFFIX.format(start);
+            if (!partitions().containsKey(name)) {
+                attach(name, start, end);
+                log.info("Created partition {} for [{}, {})", name, start, end);
+            }
+            start = end;
+        }
+    }
+
+    private void attach(String name, LocalDate start, LocalDate end) {
+        jdbc.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                // Fail fast instead of queueing behind a long query on the parent; retried next run
+                statement.execute("SET lock_timeout = '5s'");
+                try {
+                    statement.execute("CREATE TABLE IF NOT EXISTS " + name +
+                        " (LIKE " + PARENT + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+                    // Lets ATTACH skip its validation scan. Each statement commits on its own, so a failed
+                    // earlier attempt may have left the table with this constraint already.
+                    statement.execute("ALTER TABLE " + name + " DROP CONSTRAINT IF EXISTS " + name + "_range");
+                    statement.execute("ALTER TABLE " + name + " ADD CONSTRAINT " + name + "_range CHECK " +
+                        "(timestamp IS NOT NULL AND timestamp >= '" + start + "' AND timestamp < '" + end + "')");
+                    statement.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + name +
+                        " FOR VALUES FROM ('" + start + "') TO ('" + end + "')");
+                    statement.execute("ALTER TABLE " + name + " DROP CONSTRAINT " + name + "_range");
+                } finally {
+                    statement.execute("RESET lock_timeout");
+                }
+            }
+            return null;
+        });
+    }
+
+    void dropExpired() {
+        LocalDate cutoff = retentionCutoff().toLocalDate();
+        Map<String, Boolean> partitions = partitions();
+        for (String name : jdbc.queryForList(LIST_DETACHED, String.class)) {
+            partitions.put(name, null);
+        }
+        partitions.forEach((name, detachPending) -> {
+            LocalDate start = parseStart(name);
+            if (start == null || next(start).isAfter(cutoff)) {
+                return;
+            }
+            // One stuck partition must not hold back the others
+            try {
+                drop(name, detachPending);
+            } catch (DataAccessException e) {
+                log.error("Cannot drop sensor partition {}, retried on the next run", name, e);
+            }
+        });
+    }
+
+    /**
+     * @param detachPending null when the table is already detached
+     */
+    private void drop(String name, Boolean detachPending) {
+        int backfilled = jdbc.update(String.format(BACKFILL_ROLLUPS, name));
+        if (backfilled > 0) {
+            log.warn("Backfilled {} missing rollup buckets from {} before dropping it", backfilled, name);
+        }
+        // CONCURRENTLY and FINALIZE cannot run inside a transaction; JdbcTemplate outside one is in autocommit
+        if (Boolean.TRUE.equals(detachPending)) {
+            // Every other detach of this partition fails until the pending one is completed
+            jdbc.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + name + " FINALIZE");
+        } else if (detachPending != null) {
+            jdbc.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + name + " CONCURRENTLY");
+        }
+        jdbc.execute("DROP TABLE " + name);
+        log.info("Dropped sensor partition {} (older than {} days)", name, retentionDays);
+    }
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbc.queryForObject(IS_PARTITIONED, Boolean.class));
+    }
+
+    private Map<String, Boolean> partitions() {
+        Map<String, Boolean> partitions = new LinkedHashMap<>();
+        jdbc.query(LIST_PARTITIONS, (RowCallbackHandler) rs -> {
+            partitions.put(rs.getString(1), rs.getBoolean(2));
+        });
+        return partitions;
+    }
+
+    private static LocalDate parseStart(String name) {
+        if (!name.startsWith(PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(name.substring(PREFIX.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private LocalDate periodStart(LocalDate date) {
+        return period == Period.WEEK
+            ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+            : date.withDayOfMonth(1);
+    }
+
+    private LocalDate next(LocalDate start) {
+        return period == Period.WEEK ? start.plusWeeks(1) : start.plusMonths(1);
+    }
+}
@@ -0,0 +1,188 @@
+package com.anode.storage.service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.anode.storage.config.DatabasePlatform;
+import com.anode.storage.dto.SensorHistory;
+import com.anode.storage.dto.SensorReadingInput;
+import com.anode.storage.entity.location.RollupResolution;
+import com.anode.storage.repository.SensorRollupRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Minute, hour and day rollups of sensor readings.
+ *
+ * Each written batch is first aggregated in memory per (location, resolution, bucket), so a batch of
+ * thousands of readings becomes a few upserts that merge min/max and add sums and counts.
+ * History queries read the finest resolution whose bucket count fits the caller's point budget.
+ */
+@Service
+@RequiredArgsConstructor
+public class SensorRollupService {
+
+    static final int DEFAULT_MAX_POINTS = 1000;
+    static final int MAX_POINTS = 5000;
+
+    private static final String UPSERT_POSTGRES =
+        "INSERT INTO sensor_rollup (location_id, resolution, bucket_start, " +
+        "temperature_min, temperature_max, temperature_sum, temperature_count, " +
+        "humidity_min, humidity_max, humidity_sum, humidity_count) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (location_id, resolution, bucket_start) DO UPDATE SET " +
+        "temperature_min = LEAST(sensor_rollup.temperature_min, EXCLUDED.temperature_min), " +
+        "temperature_max = GREATEST(sensor_rollup.temperature_max, EXCLUDED.temperature_max), " +
+        "temperature_sum = COALESCE(sensor_rollup.temperature_sum, 0) + COALESCE(EXCLUDED.temperature_sum, 0), " +
+        "temperature_count = sensor_rollup.temperature_count + EXCLUDED.temperature_count, " +
+        "humidity_min = LEAST(sensor_rollup.humidity_min, EXCLUDED.humidity_min), " +
+        "humidity_max = GREATEST(sensor_rollup.humidity_max, EXCLUDED.humidity_max), " +
+        "humidity_sum = COALESCE(sensor_rollup.humidity_sum, 0) + COALESCE(EXCLUDED.humidity_sum, 0), " +
+        "humidity_count = sensor_rollup.humidity_count + EXCLUDED.humidity_count";
+
+    // Standard MERGE for databases without ON CONFLICT (H2 in tests)
+    private static final String UPSERT_PORTABLE =
+        "MERGE INTO sensor_rollup t USING (SELECT CAST(? AS BIGINT) AS location_id, CAST(? AS VARCHAR(8)) AS resolution, " +
+        "CAST(? AS TIMESTAMP) AS bucket_start, " +
+        "CAST(? AS DOUBLE PRECISION) AS temperature_min, CAST(? AS DOUBLE PRECISION) AS temperature_max, " +
+        "CAST(? AS DOUBLE PRECISION) AS temperature_sum, CAST(? AS BIGINT) AS temperature_count, " +
+        "CAST(? AS DOUBLE PRECISION) AS humidity_min, CAST(? AS DOUBLE PRECISION) AS humidity_max, " +
+        "CAST(? AS DOUBLE PRECISION) AS humidity_sum, CAST(? AS BIGINT) AS humidity_count) s " +
+        "ON (t.location_id = s.location_id AND t.resolution = s.resolution AND t.bucket_start = s.bucket_start) " +
+        "WHEN MATCHED THEN UPDATE SET " +
+        "temperature_min = LEAST(t.temperature_min, s.temperature_min), " +
+        "temperature_max = GREATEST(t.temperature_max, s.temperature_max), " +
+        "temperature_sum = COALESCE(t.temperature_sum, 0) + COALESCE(s.temperature_sum, 0), " +
+        "temperature_count = t.temperature_count + s.temperature_count, " +
+        "humidity_min = LEAST(t.humidity_min, s.humidity_min), " +
+        "humidity_max = GREATEST(t.humidity_max, s.humidity_max), " +
+        "humidity_sum = COALESCE(t.humidity_sum, 0) + COALESCE(s.humidity_sum, 0), " +
+        "humidity_count = t.humidity_count + s.humidity_count " +
+        "WHEN NOT MATCHED THEN INSERT (location_id, resolution, bucket_start, " +
+        "temperature_min, temperature_max, temperature_sum, temperature_count, " +
+        "humidity_min, humidity_max, humidity_sum, humidity_count) " +
+        "VALUES (s.location_id, s.resolution, s.bucket_start, s.temperature_min, s.temperature_max, " +
+        "s.temperature_sum, s.temperature_count, s.humidity_min, s.humidity_max, s.humidity_sum, s.humidity_count)";
+
+    private final JdbcTemplate jdbc;
+    private final SensorRollupRepository rollupRepo;
+    private final DatabasePlatform databasePlatform;
+
+    /**
+     * Fold a batch of readings into every resolution. Runs in the transaction that inserts the raw rows,
+     * so a retried batch is never counted twice.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(List<SensorReadingInput> readings) {
+        // Sorted keys: concurrent writers on other nodes lock the same rows in the same order
+        Map<BucketKey, Bucket> buckets = new TreeMap<>();
+        for (SensorReadingInput reading : readings) {
+            for (RollupResolution resolution : RollupResolution.values()) {
+                BucketKey key = new BucketKey(reading.getLocationId(), resolution,
+                    resolution.bucketStart(reading.getTimestamp()));
+                buckets.computeIfAbsent(key, k -> new Bucket()).add(reading);
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((key, bucket) -> rows.add(new Object[] {
+            key.locationId, key.resolution.name(), Timestamp.valueOf(key.bucketStart),
+            bucket.temperatureMin, bucket.temperatureMax, bucket.temperatureSum, bucket.temperatureCount,
+            bucket.humidityMin, bucket.humidityMax, bucket.humiditySum, bucket.humidityCount
+        }));
+        int[] types = {
+            Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP,
+            Types.DOUBLE, Types.DOUBLE, Types.DOUBLE, Types.BIGINT,
+            Types.DOUBLE, Types.DOUBLE, Types.DOUBLE, Types.BIGINT
+        };
+        jdbc.batchUpdate(databasePlatform.isPostgres() ? UPSERT_POSTGRES : UPSERT_PORTABLE, rows, types);
+    }
+
+    /**
+     * Chart data for one location: the finest resolution that stays within {@code maxPoints} buckets
+     * over [from, to), falling back to days.
+     */
+    @Transactional(readOnly = true)
+    public SensorHistory history(Long locationId, LocalDateTime from, LocalDateTime to, Integer maxPoints) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        int budget = maxPoints == null ? DEFAULT_MAX_POINTS : Math.max(1, Math.min(maxPoints, MAX_POINTS));
+        RollupResolution resolution = pickResolution(Duration.between(from, to), budget);
+        LocalDateTime start = resolution.bucketStart(from);
+        return new SensorHistory(locationId, resolution, start, to,
+            rollupRepo.findBuckets(locationId, resolution, start, to));
+    }
+
+    static RollupResolution pickResolution(Duration window, int maxPoints) {
+        for (RollupResolution resolution : RollupResolution.values()) {
+            long bucketMillis = resolution.getBucket().toMillis();
+            // +1 for the partial bucket at the start of the window
+            long buckets = (window.toMillis() + bucketMillis - 1) / bucketMillis + 1;
+            if (buckets <= maxPoints) {
+                return resolution;
+            }
+        }
+        return RollupResolution.DAY;
+    }
+
+    private static final class BucketKey implements Comparable<BucketKey> {
+        final Long locationId;
+        final RollupResolution resolution;
+        final LocalDateTime bucketStart;
+
+        BucketKey(Long locationId, RollupResolution resolution, LocalDateTime bucketStart) {
+            this.locationId = locationId;
+            this.resolution = resolution;
+            this.bucketStart = bucketStart;
+        }
+
+        @Override
+        public int compareTo(BucketKey other) {
+            int c = locationId.compareTo(other.locationId);
+            if (c == 0) {
+                c = resolution.compareTo(other.resolution);
+            }
+            return c != 0 ? c : bucketStart.compareTo(other.bucketStart);
+        }
+    }
+
+    private static final class Bucket {
+        Double temperatureMin;
+        Double temperatureMax;
+        Double temperatureSum;
+        long temperatureCount;
+        Double humidityMin;
+        Double humidityMax;
+        Double humiditySum;
+        long humidityCount;
+
+        void add(SensorReadingInput reading) {
+            Double t = reading.getTemperature();
+            if (t != null) {
+                temperatureMin = temperatureMin == null ? t : Math.min(temperatureMin, t);
+                temperatureMax = temperatureMax == null ? t : Math.max(temperatureMax, t);
+                temperatureSum = temperatureSum == null ? t : temperatureSum + t;
+                temperatureCount++;
+            }
+            Double h = reading.getHumidity();
+            if (h != null) {
+                humidityMin = humidityMin == null ? h : Math.min(humidityMin, h);
+                humidityMax = humidityMax == null ? h : Math.max(humidityMax, h);
+                humiditySum = humiditySum == null ? h : humiditySum + h;
+                humidityCount++;
+            }
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.anode.storage.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.anode.storage.cluster.ClusterRelay;
+import com.anode.storage.dto.SensorPoint;
+import com.anode.storage.dto.SensorReadingInput;
+import com.anode.storage.dto.SensorSeries;
+import com.anode.storage.entity.location.SensorReading;
+import com.anode.storage.repository.SensorReadingRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The last few hours of raw readings per location, kept in memory in compressed chunks (see SensorChunk).
+ *
+ * The ingest writer appends every batch once it is committed. Each location remembers from when on its
+ * memory is complete; a query reads that part from memory and only the remainder, if any, from the
+ * database. Readings within the reorder tolerance of a location's newest one wait uncompressed, so late
+ * ones still slot in; a reading behind everything buffered moves the complete range past it. Chunks older
+ * than the window, or the oldest ones while over the memory budget, are dropped whole.
+ *
+ * Memory only holds what this node ingested. Nodes announce the locations they ingest over the cluster
+ * relay, and a location another node ingests is served from the database until that node has stopped
+ * for a window; route ingest by location to keep the memory path with several nodes.
+ */
+@Service
+@Slf4j
+public class SensorWindowService {
+
+    static final long CHUNK_SPAN_MILLIS = Duration.ofMinutes(15).toMillis();
+    static final int CHUNK_MAX_POINTS = 2048;
+    static final String CLUSTER_CHANNEL = "sensor-window";
+    static final long ANNOUNCE_MILLIS = Duration.ofSeconds(10).toMillis();
+    // A buffered reading: three longs plus object and list overhead
+    private static final int PENDING_POINT_BYTES = 48;
+
+    private final SensorReadingRepository readingRepo;
+    private final ClusterRelay relay;
+    private final Duration window;
+    private final long maxBytes;
+    private final long reorderToleranceMillis;
+    // Until the other nodes have announced their locations, nothing in memory is known to be complete
+    private final long completeFrom = toMillis(LocalDateTime.now()) + 2 * ANNOUNCE_MILLIS;
+
+    private final Map<Long, Series> series = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong points = new AtomicLong();
+
+    private final Counter outOfOrder;
+    private final Counter shared;
+    private final Counter memoryQueries;
+    private final Counter databaseQueries;
+
+    public SensorWindowService(SensorReadingRepository readingRepo,
+                               ClusterRelay relay,
+                               MeterRegistry registry,
+                               @Value("${storage.sensors.window:PT6H}") Duration window,
+                               @Value("${storage.sensors.window-max-bytes:67108864}") long maxBytes,
+                               @Value("${storage.sensors.window-reorder-tolerance:PT1M}") Duration reorderTolerance) {
+        this.readingRepo = readingRepo;
+        this.relay = relay;
+        this.window = window;
+        this.maxBytes = maxBytes;
+        this.reorderToleranceMillis = reorderTolerance.toMillis();
+        this.outOfOrder = registry.counter("sensor.window.out_of_order");
+        this.shared = registry.counter("sensor.window.shared");
+        this.memoryQueries = registry.counter("sensor.window.queries", "source", "memory");
+        this.databaseQueries = registry.counter("sensor.window.queries", "source", "database");
+        registry.gauge("sensor.window.bytes", bytes);
+        registry.gauge("sensor.window.points", points);
+        registry.gaugeMapSize("sensor.window.locations", Tags.empty(), series);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        relay.subscribe(CLUSTER_CHANNEL, payload -> {
+            // Anything the other node ingested up to its next announcement may be missing here
+            long until = toMillis(LocalDateTime.now()) + 2 * ANNOUNCE_MILLIS;
+            for (JsonNode locationId : payload) {
+                series.computeIfAbsent(locationId.asLong(), id -> new Series(completeFrom)).ingestedElsewhere(until);
+                shared.increment();
+            }
+        });
+    }
+
+    /**
+     * Add committed readings. Called by the single ingest writer thread.
+     */
+    public void append(List<SensorReadingInput> batch) {
+        // Gateways interleave within a batch; in timestamp order most of them append cleanly
+        List<SensorReadingInput> ordered = new ArrayList<>(batch);
+        ordered.sort(Comparator.comparing(SensorReadingInput::getTimestamp));
+        long now = toMillis(LocalDateTime.now());
+        Set<Long> announce = new LinkedHashSet<>();
+        for (SensorReadingInput reading : ordered) {
+            Series s = series.computeIfAbsent(reading.getLocationId(), id -> new Series(completeFrom));
+            s.append(toMillis(reading.getTimestamp()), valueOf(reading.getTemperature()), valueOf(reading.getHumidity()));
+            if (s.announceDue(now)) {
+                announce.add(reading.getLocationId());
+            }
+        }
+        if (!announce.isEmpty()) {
+            relay.publish(CLUSTER_CHANNEL, announce);
+        }
+        if (bytes.get() > maxBytes) {
+            trim();
+        }
+    }
+
+    /**
+     * Whether another node announced ingesting readings of the location lately
+     */
+    public boolean isIngestedElsewhere(Long locationId) {
+        Series s = series.get(locationId);
+        return s != null && s.elsewhereUntil() > toMillis(LocalDateTime.now());
+    }
+
+    /**
+     * Readings of the last {@code period}, normally without touching the database
+     */
+    public SensorSeries recent(Long locationId, Duration period) {
+        LocalDateTime to = LocalDateTime.now().plusSeconds(1);
+        return readings(locationId, to.minus(period), to);
+    }
+
+    public SensorSeries readings(Long locationId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        long fromMillis = toMillis(from);
+        long toMillis = toMillis(to);
+
+        List<SensorPoint> recent = new ArrayList<>();
+        Series s = series.get(locationId);
+        long coveredFrom = s == null ? completeFrom : s.read(fromMillis, toMillis, recent);
+        if (fromMillis >= coveredFrom) {
+            memoryQueries.increment();
+            return new SensorSeries(locationId, from, to, recent);
+        }
+
+        databaseQueries.increment();
+        List<SensorPoint> result = new ArrayList<>();
+        LocalDateTime dbTo = toMillis < coveredFrom ? to : toLocalDateTime(coveredFrom);
+        for (SensorReading reading : readingRepo.findRange(locationId, from, dbTo)) {
+            result.add(new SensorPoint(reading.getTimestamp(), reading.getTemperature(), reading.getHumidity()));
+        }
+        result.addAll(recent);
+        return new SensorSeries(locationId, from, to, result);
+    }
+
+    /**
+     * Drop chunks that left the window, then the oldest ones until the budget is met
+     */
+    @Scheduled(fixedDelayString = "${storage.sensors.window-trim-ms:60000}")
+    public synchronized void trim() {
+        long now = toMillis(LocalDateTime.now());
+        long horizon = now - window.toMillis();
+        evictBefore(horizon);
+        while (bytes.get() > maxBytes && horizon < now) {
+            horizon += CHUNK_SPAN_MILLIS;
+            evictBefore(horizon);
+        }
+        if (horizon > now - window.toMillis()) {
+            log.warn("Sensor window over its {} byte budget, kept only {} minutes",
+                maxBytes, Duration.ofMillis(Math.max(0, now - horizon)).toMinutes());
+        }
+    }
+
+    private void evictBefore(long horizon) {
+        for (Series s : series.values()) {
+            s.evictBefore(horizon);
+        }
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private static double valueOf(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static Double valueOf(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private record Point(long millis, double temperature, double humidity) {
+    }
+
+    /**
+     * Chunks of one location, oldest first, then the readings still waiting out the reorder tolerance.
+     * Everything from {@code coveredFrom} on is in memory.
+     */
+    private final class Series {
+        private final ArrayDeque<SensorChunk> chunks = new ArrayDeque<>();
+        private final List<Point> pending = new ArrayList<>();
+        private long coveredFrom;
+        private long newest = Long.MIN_VALUE;
+        private long announcedAt;
+        private long elsewhereUntil;
+
+        Series(long coveredFrom) {
+            this.coveredFrom = coveredFrom;
+        }
+
+        synchronized void append(long millis, double temperature, double humidity) {
+            if (millis < coveredFrom) {
+                return;
+            }
+            SensorChunk active = chunks.peekLast();
+            if (active != null && millis < active.lastMillis()) {
+                // Compressed chunks are append-only: leave everything up to this reading to the database
+                outOfOrder.increment();
+                coveredFrom = millis + 1;
+                return;
+            }
+            int at = pending.size();
+            while (at > 0 && pending.get(at - 1).millis() > millis) {
+                at--;
+            }
+            pending.add(at, new Point(millis, temperature, humidity));
+            bytes.addAndGet(PENDING_POINT_BYTES);
+            points.incrementAndGet();
+            newest = Math.max(newest, millis);
+            compressBefore(newest - reorderToleranceMillis);
+        }
+
+        private void compressBefore(long horizon) {
+            int count = 0;
+            while (count < pending.size() && pending.get(count).millis() < horizon) {
+                compress(pending.get(count++));
+            }
+            pending.subList(0, count).clear();
+            bytes.addAndGet(-(long) count * PENDING_POINT_BYTES);
+        }
+
+        private void compress(Point point) {
+            SensorChunk active = chunks.peekLast();
+            if (active == null || active.count() >= CHUNK_MAX_POINTS || point.millis() - active.firstMillis() >= CHUNK_SPAN_MILLIS) {
+                if (active != null) {
+                    long before = active.sizeBytes();
+                    active.seal();
+                    bytes.addAndGet(active.sizeBytes() - before);
+                }
+                active = new SensorChunk();
+                chunks.addLast(active);
+                bytes.addAndGet(active.sizeBytes());
+            }
+            long before = active.sizeBytes();
+            active.append(point.millis(), point.temperature(), point.humidity());
+            bytes.addAndGet(active.sizeBytes() - before);
+        }
+
+        /**
+         * Whether this node should (re)announce that it ingests the location
+         */
+        synchronized boolean announceDue(long now) {
+            if (now - announcedAt < ANNOUNCE_MILLIS) {
+                return false;
+            }
+            announcedAt = now;
+            return true;
+        }
+
+        synchronized void ingestedElsewhere(long until) {
+            coveredFrom = Math.max(coveredFrom, until);
+            elsewhereUntil = until;
+        }
+
+        synchronized long elsewhereUntil() {
+            return elsewhereUntil;
+        }
+
+        synchronized void evictBefore(long horizon) {
+            SensorChunk oldest;
+            while ((oldest = chunks.peekFirst()) != null && oldest.lastMillis() < horizon) {
+                chunks.removeFirst();
+                bytes.addAndGet(-oldest.sizeBytes());
+                points.addAndGet(-oldest.count());
+                coveredFrom = Math.max(coveredFrom, oldest.lastMillis() + 1);
+            }
+            // A location gone quiet leaves its last readings buffered until they expire
+            int count = 0;
+            while (count < pending.size() && pending.get(count).millis() < horizon) {
+                coveredFrom = Math.max(coveredFrom, pending.get(count++).millis() + 1);
+            }
+            pending.subList(0, count).clear();
+            bytes.addAndGet(-(long) count * PENDING_POINT_BYTES);
+            points.addAndGet(-count);
+        }
+
+        /**
+         * Collect the points in [from, to) that are in memory; returns coveredFrom
+         */
+        synchronized long read(long from, long to, List<SensorPoint> out) {
+            long start = Math.max(from, coveredFrom);
+            for (SensorChunk chunk : chunks) {
+                if (chunk.lastMillis() < start || chunk.firstMillis() >= to) {
+                    continue;
+                }
+                chunk.decode((millis, temperature, humidity) -> {
+                    if (millis >= start && millis < to) {
+                        out.add(new SensorPoint(toLocalDateTime(millis), valueOf(temperature), valueOf(humidity)));
+                    }
+                });
+            }
+            for (Point point : pending) {
+                if (point.millis() >= start && point.millis() < to) {
+                    out.add(new SensorPoint(toLocalDateTime(point.millis()), valueOf(point.temperature()), valueOf(point.humidity())));
+                }
+            }
+            return coveredFrom;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.anode.storage.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * An update lost against a concurrent modification of the same row
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class StaleVersionException extends RuntimeException {
+
+    public StaleVersionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
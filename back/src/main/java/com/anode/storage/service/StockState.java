@@ -0,0 +1,51 @@
+package com.anode.storage.service;
+
+import com.anode.storage.entity.core.ItemStatus;
+import com.anode.storage.entity.core.StorageItem;
+
+/**
+ * Snapshot of the parts of a batch that feed its reference's stock summary
+ */
+public final class StockState {
+
+    private final Long referenceId;
+    private final ItemStatus status;
+    private final double quantity;
+
+    public StockState(Long referenceId, ItemStatus status, Double quantity) {
+        this.referenceId = referenceId;
+        this.status = status;
+        this.quantity = quantity != null ? quantity : 0.0;
+    }
+
+    public static StockState of(StorageItem item) {
+        return new StockState(
+            item.getReference() != null ? item.getReference().getId() : null,
+            item.getStatus(),
+            item.getInventoryInfo() != null ? item.getInventoryInfo().getQuantity() : null);
+    }
+
+    public Long getReferenceId() {
+        return referenceId;
+    }
+
+    public ItemStatus getStatus() {
+        return status;
+    }
+
+    public double getQuantity() {
+        return quantity;
+    }
+
+    double availableQuantity() {
+        return status == ItemStatus.AVAILABLE ? quantity : 0.0;
+    }
+
+    double reservedQuantity() {
+        return status == ItemStatus.RESERVED ? quantity : 0.0;
+    }
+
+    int availableBatches() {
+        return status == ItemStatus.AVAILABLE ? 1 : 0;
+    }
+}
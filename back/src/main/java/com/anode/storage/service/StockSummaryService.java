@@ -0,0 +1,143 @@
+package com.anode.storage.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.anode.storage.config.DatabasePlatform;
+import com.anode.storage.dto.CursorPage;
+import com.anode.storage.dto.ItemSort;
+import com.anode.storage.entity.core.ReferenceStockSummary;
+import com.anode.storage.event.LowStockCrossedEvent;
+import com.anode.storage.repository.ReferenceStockSummaryRepository;
+import com.anode.storage.repository.SummaryLevel;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains ReferenceStockSummary rows incrementally.
+ * Callers report each batch change as a before/after StockState inside their own transaction,
+ * so the totals commit or roll back together with the batch.
+ * A change that moves a reference across its minimum publishes a LowStockCrossedEvent.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockSummaryService {
+
+    private final ReferenceStockSummaryRepository summaries;
+    private final ApplicationEventPublisher events;
+    private final DatabasePlatform databasePlatform;
+
+    public ReferenceStockSummary find(Long referenceId) {
+        return summaries.findById(referenceId)
+                .orElseThrow(() -> new RuntimeException("Stock summary not found for reference: " + referenceId));
+    }
+
+    public CursorPage<ReferenceStockSummary> findLowStock(String cursor, Integer size) {
+        int limit = StorageItemService.pageSize(size);
+        long afterId = cursor != null ? ItemCursor.decode(cursor, ItemSort.ID).getLastId() : 0L;
+        List<ReferenceStockSummary> rows = summaries.findLowStockAfter(afterId, PageRequest.of(0, limit + 1));
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        return new CursorPage<>(rows.subList(0, limit),
+            ItemCursor.ofId(rows.get(limit - 1).getReferenceId()).encode());
+    }
+
+    /**
+     * Record a batch change. {@code before} is null for a new batch, {@code after} is null for a deleted one.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(StockState before, StockState after) {
+        if (before != null && after != null && sameReference(before, after)) {
+            apply(after.getReferenceId(),
+                after.availableQuantity() - before.availableQuantity(),
+                after.reservedQuantity() - before.reservedQuantity(),
+                0,
+                after.availableBatches() - before.availableBatches());
+            return;
+        }
+        if (before != null && before.getReferenceId() != null) {
+            apply(before.getReferenceId(), -before.availableQuantity(), -before.reservedQuantity(),
+                -1, -before.availableBatches());
+        }
+        if (after != null && after.getReferenceId() != null) {
+            apply(after.getReferenceId(), after.availableQuantity(), after.reservedQuantity(),
+                1, after.availableBatches());
+        }
+    }
+
+    /**
+     * Recompute the summaries of the given references from their batches
+     */
+    @Transactional
+    public int rebuild(Collection<Long> referenceIds) {
+        if (referenceIds.isEmpty()) {
+            return 0;
+        }
+        // Overwrite in place: deleting first would race with a concurrent apply() recreating the row
+        return databasePlatform.isPostgres()
+            ? summaries.upsertFromItems(referenceIds)
+            : summaries.mergeFromItems(referenceIds);
+    }
+
+    /**
+     * Recompute every summary from storage_items in one set-based statement, overwriting in place like rebuild()
+     */
+    @Transactional
+    public int rebuildAll() {
+        long start = System.currentTimeMillis();
+        summaries.deleteOrphans();
+        int rows = databasePlatform.isPostgres() ? summaries.upsertAllFromItems() : summaries.mergeAllFromItems();
+        log.info("Rebuilt {} reference stock summaries in {} ms", rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    private void apply(Long referenceId, double available, double reserved, int batches, int availableBatches) {
+        if (available == 0 && reserved == 0 && batches == 0 && availableBatches == 0) {
+            return;
+        }
+        int updated = summaries.applyDelta(referenceId, available, reserved, batches, availableBatches,
+            LocalDateTime.now());
+        if (updated == 0) {
+            // First batch of this reference: the current change is already flushed, so derive the row from items.
+            // If another transaction created the row meanwhile, its totals cannot include our uncommitted change.
+            List<Long> ids = List.of(referenceId);
+            int inserted = databasePlatform.isPostgres()
+                ? summaries.insertFromItemsIfAbsent(ids)
+                : summaries.mergeFromItemsIfAbsent(ids);
+            if (inserted == 0) {
+                summaries.applyDelta(referenceId, available, reserved, batches, availableBatches, LocalDateTime.now());
+            }
+        }
+        publishIfCrossed(referenceId, available + reserved);
+    }
+
+    // Read after the update, under its row lock, so the level before is exact even with concurrent writers
+    private void publishIfCrossed(Long referenceId, double delta) {
+        if (delta == 0) {
+            return;
+        }
+        SummaryLevel level = summaries.findLevel(referenceId);
+        if (level == null || level.getMinStock() == null) {
+            return;
+        }
+        double after = level.getAvailableQuantity() + level.getReservedQuantity();
+        boolean wasLow = after - delta < level.getMinStock();
+        if (wasLow != Boolean.TRUE.equals(level.getLowStock())) {
+            events.publishEvent(new LowStockCrossedEvent(referenceId, !wasLow, after, level.getMinStock()));
+        }
+    }
+
+    private static boolean sameReference(StockState before, StockState after) {
+        return before.getReferenceId() != null && before.getReferenceId().equals(after.getReferenceId());
+    }
+}
@@ -1,12 +1,34 @@
 package com.anode.storage.service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Supplier;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.anode.storage.dto.CursorPage;
+import com.anode.storage.dto.InventoryChange;
+import com.anode.storage.dto.ItemSort;
+import com.anode.storage.entity.core.ItemStatus;
 import com.anode.storage.entity.core.ProductType;
 import com.anode.storage.entity.core.StorageItem;
+import com.anode.storage.entity.safety.DisposalRequest;
+import com.anode.storage.entity.safety.StockLog;
+import com.anode.storage.event.InventoryChangedEvent;
+import com.anode.storage.event.StorageItemChangedEvent;
+import com.anode.storage.event.StorageItemChangedEvent.Change;
+import com.anode.storage.repository.DisposalRequestRepository;
+import com.anode.storage.repository.ItemLabel;
+import com.anode.storage.repository.StockLevel;
+import com.anode.storage.repository.StockLogRepository;
 import com.anode.storage.repository.StorageItemRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -15,14 +37,61 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class StorageItemService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_UPDATE_ATTEMPTS = 3;
+
     private final StorageItemRepository repository;
+    private final StockLogRepository stockLogRepository;
+    private final DisposalRequestRepository disposalRequestRepository;
+    private final StockSummaryService stockSummaryService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher events;
+
+    /**
+     * List items one keyset page at a time.
+     * Each page is a single index range scan, so latency does not grow with the table.
+     */
+    public CursorPage<StorageItem> findPage(ProductType productType, ItemSort sort, String cursor, Integer size) {
+        int limit = pageSize(size);
+        ItemCursor after = cursor != null ? ItemCursor.decode(cursor, sort) : ItemCursor.first(sort);
+        // One extra row tells us whether another page follows
+        PageRequest fetch = PageRequest.of(0, limit + 1);
 
-    public List<StorageItem> findAll() {
-        return repository.findAll();
+        List<StorageItem> rows;
+        if (sort == ItemSort.ID) {
+            rows = repository.findPageAfterId(productType, after.getLastId(), fetch);
+        } else if (after.getExpirationDate() != null) {
+            rows = new ArrayList<>(repository.findPageAfterExpiration(
+                productType, after.getExpirationDate(), after.getLastId(), fetch));
+            if (rows.size() <= limit) {
+                // Dated batches exhausted, continue with the undated tail
+                rows.addAll(repository.findUndatedPageAfterId(
+                    productType, 0L, PageRequest.of(0, limit + 1 - rows.size())));
+            }
+        } else {
+            rows = repository.findUndatedPageAfterId(productType, after.getLastId(), fetch);
+        }
+
+        return slice(rows, limit, sort);
     }
 
-    public List<StorageItem> findByProductType(ProductType productType) {
-        return repository.findByProductType(productType);
+    /**
+     * Cut a limit + 1 row fetch down to one page and derive the cursor for the next one
+     */
+    static CursorPage<StorageItem> slice(List<StorageItem> rows, int limit, ItemSort sort) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<StorageItem> page = rows.subList(0, limit);
+        return new CursorPage<>(page, ItemCursor.after(sort, page.get(limit - 1)).encode());
+    }
+
+    static int pageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
     }
 
     public StorageItem find(Long id) {
@@ -30,18 +99,119 @@ public class StorageItemService {
                 .orElseThrow(() -> new RuntimeException("Storage item not found: " + id));
     }
 
+    /**
+     * Label payloads for the given items, in the same order, from one query
+     */
+    public List<String> findLabelCodes(List<Long> itemIds) {
+        Map<Long, String> codes = new HashMap<>();
+        for (ItemLabel label : repository.findLabels(itemIds)) {
+            codes.put(label.getId(), label.getProductType().labelCode(label.getId()));
+        }
+        List<String> ordered = new ArrayList<>(itemIds.size());
+        for (Long id : itemIds) {
+            String code = codes.get(id);
+            if (code == null) {
+                throw new RuntimeException("Storage item not found: " + id);
+            }
+            ordered.add(code);
+        }
+        return ordered;
+    }
+
+    /**
+     * Load an item with its reference, supplier, hazard class, location and site in one query
+     */
+    public StorageItem findDetail(Long id) {
+        return repository.findDetailById(id)
+                .orElseThrow(() -> new RuntimeException("Storage item not found: " + id));
+    }
+
+    /**
+     * Movement history of an item, newest first
+     */
+    public CursorPage<StockLog> findStockLogs(Long itemId, String cursor, Integer size) {
+        int limit = pageSize(size);
+        long beforeId = cursor != null ? ItemCursor.decode(cursor, ItemSort.ID).getLastId() : Long.MAX_VALUE;
+        List<StockLog> rows = stockLogRepository.findByItemBefore(itemId, beforeId, PageRequest.of(0, limit + 1));
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        return new CursorPage<>(rows.subList(0, limit), ItemCursor.ofId(rows.get(limit - 1).getId()).encode());
+    }
+
+    public List<DisposalRequest> findDisposals(Long itemId) {
+        return disposalRequestRepository.findByProductId(itemId);
+    }
+
+    @Transactional
     public StorageItem create(StorageItem item) {
-        return repository.save(item);
+        StorageItem saved = repository.save(item);
+        stockSummaryService.recordChange(null, StockState.of(saved));
+        publish(saved, Change.CREATED, null);
+        return saved;
     }
 
+    /**
+     * Replace an item.
+     * When the request carries a version it is checked and a conflict is reported to the caller.
+     * Without one the update is last-writer-wins and retried on concurrent modification.
+     */
     public StorageItem update(Long id, StorageItem item) {
+        Long clientVersion = item.getVersion();
+        try {
+            if (clientVersion != null) {
+                return transactionTemplate.execute(status -> doUpdate(id, item, clientVersion));
+            }
+            return withOptimisticRetry(() -> transactionTemplate.execute(status -> doUpdate(id, item, null)));
+        } catch (OptimisticLockingFailureException e) {
+            throw new StaleVersionException("Storage item " + id + " was modified concurrently", e);
+        }
+    }
+
+    private StorageItem doUpdate(Long id, StorageItem item, Long clientVersion) {
         StorageItem existing = find(id);
+        StockState before = StockState.of(existing);
+        Long previousLocationId = existing.getLocation() != null ? existing.getLocation().getId() : null;
         item.setId(existing.getId());
-        return repository.save(item);
+        item.setVersion(clientVersion != null ? clientVersion : existing.getVersion());
+        // Flush so the version check and the expiry check in @PreUpdate run before the new state is recorded
+        StorageItem saved = repository.saveAndFlush(item);
+        stockSummaryService.recordChange(before, StockState.of(saved));
+        publish(saved, Change.UPDATED, previousLocationId);
+        return saved;
+    }
+
+    private static <T> T withOptimisticRetry(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
     }
 
+    @Transactional
     public void delete(Long id) {
-        repository.deleteById(id);
+        StorageItem existing = find(id);
+        StockState before = StockState.of(existing);
+        repository.delete(existing);
+        stockSummaryService.recordChange(before, null);
+        publish(existing, Change.DELETED, null);
+    }
+
+    private void publish(StorageItem item, Change change, Long previousLocationId) {
+        Long referenceId = item.getReference() != null ? item.getReference().getId() : null;
+        events.publishEvent(new StorageItemChangedEvent(item.getId(), referenceId, change));
+        events.publishEvent(new InventoryChangedEvent(List.of(
+            InventoryChange.of(item, previousLocationId, change == Change.DELETED))));
+    }
+
+    private void publish(StockLevel level, ItemStatus status, double quantity) {
+        events.publishEvent(new InventoryChangedEvent(List.of(new InventoryChange(
+            level.getId(), level.getReferenceId(), level.getLocationId(), null, quantity, status, false))));
     }
 
     /**
@@ -57,52 +227,86 @@ public class StorageItemService {
     }
 
     /**
-     * Find all items with low stock
-     * Uses business logic encapsulated in StorageItem
+     * Find items whose quantity is below their reference's default minimum.
+     * The reference is fetched in the same query, so there is no per-row lookup.
      */
-    public List<StorageItem> findLowStockItems() {
-        return repository.findAll().stream()
-                .filter(StorageItem::isLowStock)
-                .collect(Collectors.toList());
+    public CursorPage<StorageItem> findLowStockItems(String cursor, Integer size) {
+        int limit = pageSize(size);
+        ItemCursor after = cursor != null ? ItemCursor.decode(cursor, ItemSort.ID) : ItemCursor.first(ItemSort.ID);
+        List<StorageItem> rows = repository.findLowStockAfterId(after.getLastId(), PageRequest.of(0, limit + 1));
+        return slice(rows, limit, ItemSort.ID);
     }
 
     /**
-     * Find all expired items
-     * Uses business logic from InventoryInfo composition
+     * Find items marked expired. ExpiryScheduler marks batches as their expiration date passes.
      */
-    public List<StorageItem> findExpiredItems() {
-        return repository.findAll().stream()
-                .filter(StorageItem::isExpired)
-                .collect(Collectors.toList());
+    public CursorPage<StorageItem> findExpiredItems(String cursor, Integer size) {
+        int limit = pageSize(size);
+        ItemCursor after = cursor != null ? ItemCursor.decode(cursor, ItemSort.ID) : ItemCursor.first(ItemSort.ID);
+        List<StorageItem> rows = repository.findExpiredAfterId(after.getLastId(), PageRequest.of(0, limit + 1));
+        return slice(rows, limit, ItemSort.ID);
     }
 
     /**
-     * Find items expiring soon
-     * Demonstrates composition - logic delegated to InventoryInfo
+     * Find items expiring within the given number of days, soonest first
      */
-    public List<StorageItem> findItemsExpiringSoon(int days) {
-        return repository.findAll().stream()
-                .filter(item -> item.isExpiringSoon(days))
-                .collect(Collectors.toList());
+    public CursorPage<StorageItem> findItemsExpiringSoon(int days, String cursor, Integer size) {
+        int limit = pageSize(size);
+        ItemCursor after = cursor != null
+            ? ItemCursor.decode(cursor, ItemSort.EXPIRATION)
+            : ItemCursor.first(ItemSort.EXPIRATION);
+        LocalDate today = LocalDate.now();
+        List<StorageItem> rows = repository.findExpiringAfter(
+            today, today.plusDays(days), after.getExpirationDate(), after.getLastId(),
+            PageRequest.of(0, limit + 1));
+        return slice(rows, limit, ItemSort.EXPIRATION);
     }
 
     /**
-     * Add quantity to an item
-     * Uses InventoryInfo composition methods
+     * Add quantity to an item.
+     * Applied as a single UPDATE so concurrent scanner stations cannot overwrite each other.
      */
+    @Transactional
     public void addStock(Long itemId, double amount) {
-        StorageItem item = find(itemId);
-        item.getInventoryInfo().addQuantity(amount);
-        repository.save(item);
+        requirePositive(amount);
+        if (repository.incrementQuantity(itemId, amount) == 0) {
+            throw new RuntimeException("Storage item not found: " + itemId);
+        }
+        // The UPDATE holds the row lock until commit, so this read sees exactly our change
+        StockLevel level = repository.findStockLevel(itemId).orElseThrow();
+        StockState after = new StockState(level.getReferenceId(), level.getStatus(), level.getQuantity());
+        StockState before = new StockState(level.getReferenceId(), level.getStatus(), after.getQuantity() - amount);
+        stockSummaryService.recordChange(before, after);
+        publish(level, level.getStatus(), after.getQuantity());
     }
 
     /**
-     * Remove quantity from an item
-     * Uses InventoryInfo composition methods
+     * Remove quantity from an item.
+     * The guarded UPDATE only succeeds while enough stock is left; a depleted batch is marked EMPTY.
      */
+    @Transactional
     public void removeStock(Long itemId, double amount) {
-        StorageItem item = find(itemId);
-        item.getInventoryInfo().removeQuantity(amount);
-        repository.save(item);
+        requirePositive(amount);
+        if (repository.decrementQuantity(itemId, amount) == 0) {
+            // Distinguish a missing item from insufficient stock
+            find(itemId);
+            throw new RuntimeException("Insufficient stock for item " + itemId + " to remove " + amount);
+        }
+        StockLevel level = repository.findStockLevel(itemId).orElseThrow();
+        ItemStatus status = level.getStatus();
+        double quantity = level.getQuantity() != null ? level.getQuantity() : 0.0;
+        if (quantity <= 0 && status != ItemStatus.EMPTY && repository.markEmptyIfDepleted(itemId) > 0) {
+            status = ItemStatus.EMPTY;
+        }
+        stockSummaryService.recordChange(
+            new StockState(level.getReferenceId(), level.getStatus(), quantity + amount),
+            new StockState(level.getReferenceId(), status, quantity));
+        publish(level, status, quantity);
+    }
+
+    private static void requirePositive(double amount) {
+        if (!(amount > 0)) {
+            throw new IllegalArgumentException("Stock amount must be positive: " + amount);
+        }
     }
 }
@@ -1,31 +1,93 @@
 package com.anode.storage.service;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.anode.storage.entity.safety.IncompatibilityRule;
+import com.anode.storage.repository.HazardClassRepository;
 import com.anode.storage.repository.IncompatibilityRuleRepository;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Service for checking storage compatibility rules.
  * Currently handles hazard class incompatibility for chemicals.
  * Can be extended to support other storage rule types for hardware, electrical items, etc.
+ *
+ * Checks read an in-memory IncompatibilityMatrix. It is rebuilt from the rule table on startup,
+ * after every rule change made through this service, and periodically to pick up direct edits,
+ * then swapped in whole so readers never see a half-built matrix.
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class StorageRuleService {
 
     private final IncompatibilityRuleRepository rules;
+    private final HazardClassRepository hazardClasses;
+
+    private volatile IncompatibilityMatrix matrix = IncompatibilityMatrix.EMPTY;
 
     /**
      * Check if two hazard classes are incompatible.
      * Primarily used for chemical storage but can be adapted for other safety classifications.
      */
     public Optional<String> checkCompatibility(int hazardA, int hazardB) {
-        return rules.findRule(hazardA, hazardB)
-                    .map(IncompatibilityRule::getReason);
+        return matrix.reason(hazardA, hazardB);
+    }
+
+    /**
+     * Check one hazard class against many, e.g. everything already stored in a cabinet.
+     * Returns the conflicting classes with their reasons, empty when all are compatible.
+     */
+    public Map<Integer, String> findConflicts(int hazard, Collection<Integer> others) {
+        IncompatibilityMatrix current = matrix;
+        Map<Integer, String> conflicts = new LinkedHashMap<>();
+        for (Integer other : others) {
+            if (other != null && current.incompatible(hazard, other)) {
+                conflicts.put(other, current.reason(hazard, other).orElse(""));
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * The matrix currently in use, for callers that check many pairs against one consistent rule set
+     */
+    IncompatibilityMatrix snapshot() {
+        return matrix;
+    }
+
+    public IncompatibilityRule addRule(long hazardA, long hazardB, String reason) {
+        IncompatibilityRule rule = new IncompatibilityRule();
+        rule.setHazardClassAEntity(hazardClasses.findById(hazardA)
+            .orElseThrow(() -> new RuntimeException("Hazard class not found: " + hazardA)));
+        rule.setHazardClassBEntity(hazardClasses.findById(hazardB)
+            .orElseThrow(() -> new RuntimeException("Hazard class not found: " + hazardB)));
+        rule.setReason(reason);
+        IncompatibilityRule saved = rules.save(rule);
+        reload();
+        return saved;
+    }
+
+    public void deleteRule(Long id) {
+        rules.deleteById(id);
+        reload();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${storage.rules.refresh-ms:300000}", initialDelayString = "${storage.rules.refresh-ms:300000}")
+    public synchronized void reload() {
+        IncompatibilityMatrix rebuilt = IncompatibilityMatrix.of(rules.findAll());
+        matrix = rebuilt;
+        log.debug("Loaded {} incompatibility rules", rebuilt.ruleCount());
     }
 }
@@ -0,0 +1,101 @@
+package com.anode.storage.service;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Numeric bounds parsed from the free-text Location.temperatureRange, in °C. Either bound may be open.
+ *
+ * Understood forms: "2-8°C", "2 to 8 C", "-80..-60", "15–25 °C", "< 25°C", "<= -15", "> 2", "max 25",
+ * "min 2", "room temperature" (15–25 °C), and Fahrenheit with °F. A single value such as "-20°C" is the
+ * storage set point and read as an upper bound, which is what freezer and fridge labels mean.
+ */
+public final class TemperatureRange {
+
+    private static final String NUMBER = "([-+]?\\d+(?:[.,]\\d+)?)";
+    private static final Pattern BETWEEN = Pattern.compile(NUMBER + "\\s*(?:°?\\s*[cf])?\\s*(?:-|–|—|\\.\\.|to)\\s*" + NUMBER);
+    private static final Pattern UPPER = Pattern.compile("(?:<=?|≤|max\\.?|below|under|up to)\\s*" + NUMBER);
+    private static final Pattern LOWER = Pattern.compile("(?:>=?|≥|min\\.?|above|over)\\s*" + NUMBER);
+    private static final Pattern SINGLE = Pattern.compile(NUMBER);
+
+    private final Double min;
+    private final Double max;
+
+    private TemperatureRange(Double min, Double max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    public static TemperatureRange of(Double min, Double max) {
+        return new TemperatureRange(min, max);
+    }
+
+    public static Optional<TemperatureRange> parse(String text) {
+        if (text == null || text.isBlank()) {
+            return Optional.empty();
+        }
+        String normalized = text.trim().toLowerCase(Locale.ROOT);
+        if (normalized.contains("room temp") || normalized.equals("rt") || normalized.equals("ambient")) {
+            return Optional.of(new TemperatureRange(15.0, 25.0));
+        }
+        boolean fahrenheit = normalized.matches(".*(°\\s*f|\\d\\s*f)\\b.*");
+
+        Matcher m = BETWEEN.matcher(normalized);
+        if (m.find()) {
+            double a = toCelsius(number(m.group(1)), fahrenheit);
+            double b = toCelsius(number(m.group(2)), fahrenheit);
+            return Optional.of(new TemperatureRange(Math.min(a, b), Math.max(a, b)));
+        }
+        m = UPPER.matcher(normalized);
+        if (m.find()) {
+            return Optional.of(new TemperatureRange(null, toCelsius(number(m.group(1)), fahrenheit)));
+        }
+        m = LOWER.matcher(normalized);
+        if (m.find()) {
+            return Optional.of(new TemperatureRange(toCelsius(number(m.group(1)), fahrenheit), null));
+        }
+        m = SINGLE.matcher(normalized);
+        if (m.find()) {
+            return Optional.of(new TemperatureRange(null, toCelsius(number(m.group(1)), fahrenheit)));
+        }
+        return Optional.empty();
+    }
+
+    private static double number(String text) {
+        return Double.parseDouble(text.replace(',', '.'));
+    }
+
+    private static double toCelsius(double value, boolean fahrenheit) {
+        return fahrenheit ? (value - 32) * 5 / 9 : value;
+    }
+
+    public Double getMin() {
+        return min;
+    }
+
+    public Double getMax() {
+        return max;
+    }
+
+    public boolean isAbove(double temperature) {
+        return max != null && temperature > max;
+    }
+
+    public boolean isBelow(double temperature) {
+        return min != null && temperature < min;
+    }
+
+    /**
+     * Inside the bounds with at least {@code margin} to spare on each closed side
+     */
+    public boolean isWellInside(double temperature, double margin) {
+        return (max == null || temperature <= max - margin) && (min == null || temperature >= min + margin);
+    }
+
+    @Override
+    public String toString() {
+        return (min == null ? "-∞" : min) + ".." + (max == null ? "+∞" : max) + " °C";
+    }
+}
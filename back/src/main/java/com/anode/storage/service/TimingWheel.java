@@ -0,0 +1,126 @@
+package com.anode.storage.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Hierarchical timing wheel: constant-time insertion, and advancing the clock only touches the slots it passes.
+ *
+ * The lowest level has {@code wheelSize} slots of one tick each. Every level above has slots as wide as the
+ * whole level below and is created when a deadline first needs it. When the clock reaches the start of an
+ * upper slot, its entries move down to the levels below, so an entry is moved at most once per level before
+ * it fires. An entry fires once the clock has passed the end of its tick: never early, at most one tick late.
+ * Not thread-safe.
+ */
+final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long intervalMillis;
+    private final List<Entry<T>>[] slots;
+    private final TimingWheel<T> root;
+    private TimingWheel<T> overflow;
+    // Start of the tick the clock is in
+    private long currentTime;
+
+    TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this(tickMillis, wheelSize, startMillis, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TimingWheel(long tickMillis, int wheelSize, long startMillis, TimingWheel<T> root) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Invalid timing wheel: tick " + tickMillis + " ms, " + wheelSize + " slots");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.intervalMillis = tickMillis * wheelSize;
+        this.slots = new List[wheelSize];
+        this.root = root != null ? root : this;
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedule {@code value} at {@code deadline}; returns false, without scheduling it, when the deadline has passed
+     */
+    boolean add(long deadline, T value) {
+        return root.add(new Entry<>(deadline, value));
+    }
+
+    private boolean add(Entry<T> entry) {
+        if (entry.deadline < currentTime) {
+            return false;
+        }
+        if (entry.deadline < currentTime + intervalMillis) {
+            int index = (int) Math.floorMod(Math.floorDiv(entry.deadline, tickMillis), (long) wheelSize);
+            if (slots[index] == null) {
+                slots[index] = new ArrayList<>();
+            }
+            slots[index].add(entry);
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel<>(intervalMillis, wheelSize, currentTime, root);
+        }
+        return overflow.add(entry);
+    }
+
+    /**
+     * Move the clock to {@code now}, handing every entry whose deadline has passed to {@code due}
+     */
+    void advance(long now, ObjLongConsumer<T> due) {
+        while (currentTime + tickMillis <= now) {
+            List<Entry<T>> expired = take(currentTime);
+            currentTime += tickMillis;
+            if (expired != null) {
+                for (Entry<T> entry : expired) {
+                    due.accept(entry.value, entry.deadline);
+                }
+            }
+            if (overflow != null) {
+                overflow.cascade(currentTime, due);
+            }
+        }
+    }
+
+    // Upper levels: on reaching the start of a slot, hand its entries down
+    private void cascade(long time, ObjLongConsumer<T> due) {
+        if (time < currentTime + tickMillis) {
+            return;
+        }
+        currentTime = time - Math.floorMod(time, tickMillis);
+        if (overflow != null) {
+            overflow.cascade(time, due);
+        }
+        List<Entry<T>> entries = take(currentTime);
+        if (entries != null) {
+            for (Entry<T> entry : entries) {
+                if (!root.add(entry)) {
+                    due.accept(entry.value, entry.deadline);
+                }
+            }
+        }
+    }
+
+    private List<Entry<T>> take(long slotStart) {
+        int index = (int) Math.floorMod(Math.floorDiv(slotStart, tickMillis), (long) wheelSize);
+        List<Entry<T>> entries = slots[index];
+        slots[index] = null;
+        return entries;
+    }
+
+    long getCurrentTime() {
+        return root.currentTime;
+    }
+
+    private static final class Entry<T> {
+        final long deadline;
+        final T value;
+
+        Entry(long deadline, T value) {
+            this.deadline = deadline;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- ===========================
+-- MIGRATION: Pooled sequence for stock_log ids (enables JDBC insert batching)
+-- ===========================
+
+ALTER TABLE stock_log ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE stock_log ALTER COLUMN id TYPE BIGINT;
+
+-- Must match allocationSize on StockLog. Hibernate's pooled optimizer treats each
+-- value as the top of a 50-id block, so start one block above the current max.
+CREATE SEQUENCE IF NOT EXISTS stock_log_id_seq INCREMENT BY 50;
+-- ddl-auto may have created the sequence already, starting at 1
+ALTER SEQUENCE stock_log_id_seq INCREMENT BY 50;
+SELECT setval('stock_log_id_seq', COALESCE((SELECT MAX(id) FROM stock_log), 0) + 50, false);
@@ -0,0 +1,7 @@
+-- ===========================
+-- MIGRATION: Index for filtered inventory exports
+-- ===========================
+
+-- Exports filtered by site join storage_items -> location on location_id (indexed in V2)
+-- and filter location by site_id (indexed in V3); status filters use idx_storage_items_status_id (V7).
+CREATE INDEX IF NOT EXISTS idx_storage_references_product_type_id ON storage_references(product_type, id);
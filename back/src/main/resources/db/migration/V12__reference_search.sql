@@ -0,0 +1,33 @@
+-- ===========================
+-- MIGRATION: Indexed catalog search
+-- ===========================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Short identifying fields, lower-cased, matched as substrings through a trigram index.
+-- Generated columns, so the index follows every INSERT and UPDATE without triggers.
+ALTER TABLE storage_references
+    ADD COLUMN IF NOT EXISTS search_text TEXT GENERATED ALWAYS AS (
+        lower(
+            coalesce(name, '') || ' ' ||
+            coalesce(sku, '') || ' ' ||
+            coalesce(cas_number, '') || ' ' ||
+            coalesce(manufacturer, '') || ' ' ||
+            coalesce(model_number, '')
+        )
+    ) STORED;
+
+-- Word search including the description, weighted so identity fields rank first
+ALTER TABLE storage_references
+    ADD COLUMN IF NOT EXISTS search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple'::regconfig, coalesce(name, '') || ' ' || coalesce(sku, '')), 'A') ||
+        setweight(to_tsvector('simple'::regconfig,
+            coalesce(cas_number, '') || ' ' || coalesce(manufacturer, '') || ' ' || coalesce(model_number, '')), 'B') ||
+        setweight(to_tsvector('simple'::regconfig, coalesce(description, '')), 'D')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_storage_references_search_trgm
+    ON storage_references USING GIN (search_text gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_storage_references_search_vector
+    ON storage_references USING GIN (search_vector);
@@ -0,0 +1,8 @@
+-- ===========================
+-- MIGRATION: Index for placement validation
+-- ===========================
+
+-- Distinct hazard classes per location: reads only (location_id, reference_id, status) of the shelf's batches,
+-- then joins storage_references by primary key
+CREATE INDEX IF NOT EXISTS idx_storage_items_location_reference
+    ON storage_items(location_id, reference_id, status);
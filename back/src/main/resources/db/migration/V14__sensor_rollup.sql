@@ -0,0 +1,33 @@
+-- ===========================
+-- MIGRATION: Sensor rollups
+-- ===========================
+
+-- One row per location, resolution (MINUTE / HOUR / DAY) and bucket.
+-- Sums and counts rather than averages, so buckets merge with a single upsert.
+CREATE TABLE IF NOT EXISTS sensor_rollup (
+    location_id BIGINT NOT NULL REFERENCES location(id) ON DELETE CASCADE,
+    resolution VARCHAR(8) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    temperature_min DOUBLE PRECISION,
+    temperature_max DOUBLE PRECISION,
+    temperature_sum DOUBLE PRECISION,
+    temperature_count BIGINT NOT NULL DEFAULT 0,
+    humidity_min DOUBLE PRECISION,
+    humidity_max DOUBLE PRECISION,
+    humidity_sum DOUBLE PRECISION,
+    humidity_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (location_id, resolution, bucket_start)
+);
+
+-- Backfill from the readings already stored
+INSERT INTO sensor_rollup (location_id, resolution, bucket_start,
+                           temperature_min, temperature_max, temperature_sum, temperature_count,
+                           humidity_min, humidity_max, humidity_sum, humidity_count)
+SELECT location_id, r.resolution, date_trunc(r.unit, timestamp) AS bucket,
+       MIN(temperature), MAX(temperature), SUM(temperature), COUNT(temperature),
+       MIN(humidity), MAX(humidity), SUM(humidity), COUNT(humidity)
+FROM sensor_reading
+CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS r(resolution, unit)
+WHERE location_id IS NOT NULL
+GROUP BY location_id, r.resolution, bucket
+ON CONFLICT DO NOTHING;
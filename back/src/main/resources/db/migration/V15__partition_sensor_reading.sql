@@ -0,0 +1,49 @@
+-- ===========================
+-- MIGRATION: Monthly range partitioning of sensor_reading
+-- ===========================
+
+-- Partitions are named sensor_reading_pYYYYMMDD after their first day and are created ahead of time
+-- by SensorPartitionService; retention detaches and drops whole partitions instead of deleting rows.
+-- There is deliberately no default partition: DETACH ... CONCURRENTLY is not allowed with one.
+
+ALTER TABLE sensor_reading RENAME TO sensor_reading_legacy;
+
+-- An identity column keeps its sequence, named sensor_reading_id_seq, which cannot be handed to the new table
+ALTER TABLE sensor_reading_legacy ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS sensor_reading_id_seq;
+SELECT setval('sensor_reading_id_seq', COALESCE((SELECT MAX(id) FROM sensor_reading_legacy), 0) + 1, false);
+
+CREATE TABLE sensor_reading (
+    id BIGINT NOT NULL DEFAULT nextval('sensor_reading_id_seq'),
+    location_id BIGINT REFERENCES location(id),
+    temperature DOUBLE PRECISION,
+    humidity DOUBLE PRECISION,
+    timestamp TIMESTAMP NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE sensor_reading_id_seq OWNED BY sensor_reading.id;
+
+-- Partitioned index: PostgreSQL creates a matching (location_id, timestamp) index on every partition
+CREATE INDEX IF NOT EXISTS idx_sensor_reading_location_timestamp ON sensor_reading (location_id, timestamp);
+
+-- One partition per month from the oldest reading up to two months ahead
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(timestamp) FROM sensor_reading_legacy), now()));
+    last_start DATE := date_trunc('month', now()) + INTERVAL '2 months';
+BEGIN
+    WHILE month_start <= last_start LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF sensor_reading FOR VALUES FROM (%L) TO (%L)',
+                       'sensor_reading_p' || to_char(month_start, 'YYYYMMDD'),
+                       month_start, (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO sensor_reading (id, location_id, temperature, humidity, timestamp)
+SELECT id, location_id, temperature, humidity, COALESCE(timestamp, now())
+FROM sensor_reading_legacy;
+
+DROP TABLE sensor_reading_legacy;
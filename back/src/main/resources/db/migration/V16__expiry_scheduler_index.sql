@@ -0,0 +1,10 @@
+-- ===========================
+-- MIGRATION: Index for the expiry scheduler
+-- ===========================
+
+-- Horizon reload: available batches expiring before a date. Only AVAILABLE rows are indexed,
+-- so expired, disposed and empty batches do not grow it.
+CREATE INDEX IF NOT EXISTS idx_storage_items_available_expiration
+    ON storage_items(expiration_date, id) WHERE status = 'AVAILABLE';
+
+-- The expired listing now reads status = 'EXPIRED' in id order through idx_storage_items_status_id from V7
@@ -0,0 +1,9 @@
+-- ===========================
+-- MIGRATION: Indexes backing keyset pagination of storage_items
+-- ===========================
+
+-- ORDER BY expiration_date, id with a (expiration_date, id) > (?, ?) seek predicate
+CREATE INDEX IF NOT EXISTS idx_storage_items_expiration_id ON storage_items(expiration_date, id);
+
+-- Undated tail of the expiration ordering
+CREATE INDEX IF NOT EXISTS idx_storage_items_undated_id ON storage_items(id) WHERE expiration_date IS NULL;
@@ -0,0 +1,13 @@
+-- ===========================
+-- MIGRATION: Indexes for low-stock / expired / expiring-soon filtering in SQL
+-- ===========================
+
+-- Low stock: join storage_items to references that define a minimum, compare quantities
+CREATE INDEX IF NOT EXISTS idx_storage_items_reference_quantity ON storage_items(reference_id, quantity);
+CREATE INDEX IF NOT EXISTS idx_storage_references_min_stock ON storage_references(id, default_min_stock)
+    WHERE default_min_stock IS NOT NULL;
+
+-- Expired: status = 'EXPIRED' OR expiration_date < today, read in id order
+CREATE INDEX IF NOT EXISTS idx_storage_items_status_id ON storage_items(status, id);
+
+-- Expiring soon uses idx_storage_items_expiration_id from V6
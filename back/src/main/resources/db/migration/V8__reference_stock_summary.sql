@@ -0,0 +1,37 @@
+-- ===========================
+-- MIGRATION: Per-reference stock totals maintained alongside batch mutations
+-- ===========================
+
+CREATE TABLE IF NOT EXISTS reference_stock_summary (
+    reference_id INTEGER PRIMARY KEY REFERENCES storage_references(id) ON DELETE CASCADE,
+    available_quantity DECIMAL NOT NULL DEFAULT 0,
+    reserved_quantity DECIMAL NOT NULL DEFAULT 0,
+    batch_count INTEGER NOT NULL DEFAULT 0,
+    available_batch_count INTEGER NOT NULL DEFAULT 0,
+    min_stock DECIMAL,
+    low_stock BOOLEAN NOT NULL DEFAULT FALSE,
+    updated_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+-- Low-stock views only ever read flagged rows
+CREATE INDEX IF NOT EXISTS idx_reference_stock_summary_low_stock
+    ON reference_stock_summary(reference_id) WHERE low_stock;
+
+-- Initial population (same statement as StockSummaryService.rebuildAll)
+INSERT INTO reference_stock_summary
+    (reference_id, available_quantity, reserved_quantity, batch_count, available_batch_count,
+     min_stock, low_stock, updated_at)
+SELECT r.id,
+       COALESCE(SUM(CASE WHEN i.status = 'AVAILABLE' THEN COALESCE(i.quantity, 0) ELSE 0 END), 0),
+       COALESCE(SUM(CASE WHEN i.status = 'RESERVED' THEN COALESCE(i.quantity, 0) ELSE 0 END), 0),
+       COUNT(i.id),
+       COALESCE(SUM(CASE WHEN i.status = 'AVAILABLE' THEN 1 ELSE 0 END), 0),
+       r.default_min_stock,
+       r.default_min_stock IS NOT NULL
+           AND COALESCE(SUM(CASE WHEN i.status IN ('AVAILABLE', 'RESERVED')
+                                 THEN COALESCE(i.quantity, 0) ELSE 0 END), 0) < r.default_min_stock,
+       now()
+FROM storage_references r
+LEFT JOIN storage_items i ON i.reference_id = r.id
+GROUP BY r.id, r.default_min_stock
+ON CONFLICT (reference_id) DO NOTHING;
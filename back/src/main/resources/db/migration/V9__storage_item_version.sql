@@ -0,0 +1,13 @@
+-- ===========================
+-- MIGRATION: Optimistic locking for storage_items
+-- ===========================
+
+ALTER TABLE storage_items
+ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- ddl-auto may have added the column first, nullable and without a default
+UPDATE storage_items SET version = 0 WHERE version IS NULL;
+ALTER TABLE storage_items ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE storage_items ALTER COLUMN version SET NOT NULL;
+
+COMMENT ON COLUMN storage_items.version IS 'Optimistic lock version, incremented by every entity update and atomic stock update';
@@ -0,0 +1,83 @@
+package com.anode.storage.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cluster Relay Tests")
+class ClusterRelayTest {
+
+    private InMemoryClusterTransport transport;
+    private List<String> frames;
+    private ClusterRelay nodeA;
+    private ClusterRelay nodeB;
+    private List<Integer> receivedByA;
+    private List<Integer> receivedByB;
+
+    private ClusterRelay node(List<Integer> received) {
+        ClusterRelay relay = new ClusterRelay(transport, new ObjectMapper(), null, new SimpleMeterRegistry(), 100_000);
+        relay.subscribe("numbers", payload -> received.add(payload.path("value").asInt()));
+        relay.start();
+        return relay;
+    }
+
+    @BeforeEach
+    void setUp() {
+        transport = new InMemoryClusterTransport();
+        frames = new ArrayList<>();
+        transport.listen(frames::add);
+        receivedByA = new ArrayList<>();
+        receivedByB = new ArrayList<>();
+        nodeA = node(receivedByA);
+        nodeB = node(receivedByB);
+    }
+
+    @Test
+    @DisplayName("Should deliver to the other nodes only")
+    void testDeliversToOtherNodes() {
+        nodeA.publish("numbers", Map.of("value", 1));
+        nodeA.publish("numbers", Map.of("value", 2));
+        nodeA.flush();
+
+        assertEquals(List.of(1, 2), receivedByB);
+        assertTrue(receivedByA.isEmpty());
+        assertEquals(1, frames.size(), "both messages should share one frame");
+    }
+
+    @Test
+    @DisplayName("Should split batches at the frame limit and keep their order")
+    void testSplitsFrames() {
+        String padding = "x".repeat(1000);
+        for (int i = 0; i < 200; i++) {
+            nodeA.publish("numbers", Map.of("value", i, "padding", padding));
+        }
+        nodeA.flush();
+
+        assertTrue(frames.size() > 1);
+        assertTrue(frames.stream().allMatch(frame -> frame.length() <= transport.maxFrameBytes()));
+        assertEquals(200, receivedByB.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, receivedByB.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should ignore a frame delivered twice")
+    void testDropsDuplicateFrames() {
+        nodeA.publish("numbers", Map.of("value", 7));
+        nodeA.flush();
+        nodeB.receive(frames.get(0));
+
+        assertEquals(List.of(7), receivedByB);
+    }
+}
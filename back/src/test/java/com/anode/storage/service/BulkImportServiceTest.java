@@ -0,0 +1,181 @@
+package com.anode.storage.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.anode.storage.dto.DataFormat;
+import com.anode.storage.dto.ImportRejection;
+import com.anode.storage.dto.ImportReport;
+import com.anode.storage.entity.core.Supplier;
+import com.anode.storage.entity.safety.HazardClass;
+import com.anode.storage.repository.HazardClassRepository;
+import com.anode.storage.repository.LocationRepository;
+import com.anode.storage.repository.SupplierRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Bulk Import Service Tests")
+class BulkImportServiceTest {
+
+    private JdbcTemplate jdbc;
+    private NamedParameterJdbcTemplate namedJdbc;
+    private BulkImportService service;
+
+    @BeforeEach
+    void setUp() {
+        Supplier supplier = new Supplier();
+        supplier.setId(1L);
+        supplier.setName("Acme Chemicals");
+        HazardClass flammable = new HazardClass();
+        flammable.setId(2L);
+        flammable.setGhsCode("GHS02");
+
+        SupplierRepository supplierRepo = mock(SupplierRepository.class);
+        when(supplierRepo.findAll()).thenReturn(List.of(supplier));
+        HazardClassRepository hazardClassRepo = mock(HazardClassRepository.class);
+        when(hazardClassRepo.findAll()).thenReturn(List.of(flammable));
+        LocationRepository locationRepo = mock(LocationRepository.class);
+        when(locationRepo.findAllIds()).thenReturn(List.of(10L, 11L));
+
+        // Runs the callback inline; an exception leaves it just as it leaves a real transaction
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        jdbc = mock(JdbcTemplate.class);
+        namedJdbc = mock(NamedParameterJdbcTemplate.class);
+        service = new BulkImportService(supplierRepo, hazardClassRepo, locationRepo, mock(StockSummaryService.class),
+            jdbc, namedJdbc, transactionTemplate, new ObjectMapper().findAndRegisterModules());
+    }
+
+    private ImportReport importCsv(String csv) throws IOException {
+        return service.importRows(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), DataFormat.CSV);
+    }
+
+    // The SKU lookup finds the given SKU as an existing reference
+    private void existingReference(String sku, long id) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("sku")).thenReturn(sku);
+        when(rs.getLong("id")).thenReturn(id);
+        doAnswer(invocation -> {
+            Map<String, ?> params = invocation.getArgument(1);
+            if (((Collection<?>) params.get("skus")).contains(sku)) {
+                invocation.<RowCallbackHandler>getArgument(2).processRow(rs);
+            }
+            return null;
+        }).when(namedJdbc).query(anyString(), ArgumentMatchers.<Map<String, ?>>any(), any(RowCallbackHandler.class));
+    }
+
+    private static ImportRejection rejection(ImportReport report, long row) {
+        return report.getRejections().stream()
+            .filter(r -> r.getRow() == row)
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("row " + row + " not rejected"));
+    }
+
+    @Test
+    @DisplayName("Should reject rows naming an unknown supplier, hazard class or location")
+    void testUnknownLookups() throws IOException {
+        ImportReport report = importCsv(
+            "sku,name,productType,supplier,hazardClass,locationId,quantity\n" +
+            "S-1,Acetone,CHEMICAL,Nobody Ltd,,,\n" +
+            "S-2,Ethanol,CHEMICAL,,GHS99,,\n" +
+            "S-3,Toluene,CHEMICAL,,,99,5\n" +
+            "S-4,Methanol,CHEMICAL,acme chemicals,ghs02,10,5\n");
+
+        assertEquals(3, report.getRejected());
+        assertEquals("Unknown supplier: Nobody Ltd", rejection(report, 1).getReason());
+        assertEquals("Unknown hazard class: GHS99", rejection(report, 2).getReason());
+        assertEquals("Unknown location: 99", rejection(report, 3).getReason());
+        // Lookups ignore case
+        assertEquals(1, report.getAccepted());
+        assertEquals(1, report.getReferencesCreated());
+        assertEquals(1, report.getItemsCreated());
+    }
+
+    @Test
+    @DisplayName("Should require name and productType only for a SKU that does not exist yet")
+    void testNewSkuRequiresNameAndType() throws Exception {
+        existingReference("OLD-1", 7L);
+
+        ImportReport report = importCsv(
+            "sku,name,productType,batchNumber,quantity\n" +
+            "NEW-1,,CHEMICAL,B1,5\n" +
+            "NEW-2,Acetone,,B2,5\n" +
+            "OLD-1,,,B3,5\n" +
+            "NEW-3,Acetone,CHEMICAL,B4,5\n" +
+            "NEW-3,,,B5,5\n");
+
+        assertEquals(2, report.getRejected());
+        assertEquals("name and productType are required for new sku NEW-1", rejection(report, 1).getReason());
+        assertEquals("name and productType are required for new sku NEW-2", rejection(report, 2).getReason());
+        // OLD-1 exists, and the first NEW-3 row defines the reference for the second
+        assertEquals(3, report.getAccepted());
+        assertEquals(1, report.getReferencesCreated());
+        assertEquals(3, report.getItemsCreated());
+    }
+
+    @Test
+    @DisplayName("Should count every rejection but list only the first ones")
+    void testRejectionReportTruncated() throws IOException {
+        int rows = BulkImportService.MAX_REPORTED_REJECTIONS + 25;
+        StringBuilder csv = new StringBuilder("sku,name,productType,supplier\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("S-").append(i).append(",Item,TOOL,Nobody Ltd\n");
+        }
+
+        ImportReport report = importCsv(csv.toString());
+
+        assertEquals(rows, report.getRejected());
+        assertEquals(BulkImportService.MAX_REPORTED_REJECTIONS, report.getRejections().size());
+        assertEquals(0, report.getAccepted());
+        verify(jdbc, never()).batchUpdate(anyString(), ArgumentMatchers.<Object[]>anyList());
+    }
+
+    @Test
+    @DisplayName("Should report every row of a failed chunk as rolled back, keeping earlier rejections")
+    void testFailedChunkRolledBack() throws IOException {
+        when(jdbc.batchUpdate(anyString(), ArgumentMatchers.<Object[]>anyList()))
+            .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+
+        ImportReport report = importCsv(
+            "sku,name,productType,supplier,quantity\n" +
+            "S-1,Acetone,CHEMICAL,,5\n" +
+            "S-2,Ethanol,CHEMICAL,Nobody Ltd,5\n" +
+            "S-3,,,,5\n" +
+            "S-4,Methanol,CHEMICAL,,5\n");
+
+        assertEquals(0, report.getAccepted());
+        assertEquals(0, report.getReferencesCreated());
+        assertEquals(0, report.getItemsCreated());
+        assertEquals(4, report.getRejected());
+        assertEquals("Unknown supplier: Nobody Ltd", rejection(report, 2).getReason());
+        for (long row : new long[] {1, 3, 4}) {
+            assertTrue(rejection(report, row).getReason().startsWith("Chunk rolled back: "),
+                rejection(report, row).getReason());
+        }
+    }
+}
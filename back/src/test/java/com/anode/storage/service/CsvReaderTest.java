@@ -0,0 +1,82 @@
+package com.anode.storage.service;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CSV Reader Tests")
+class CsvReaderTest {
+
+    private static List<List<String>> readAll(String input) throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(input));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    @Test
+    @DisplayName("Should keep separators inside quoted fields")
+    void testQuotedComma() throws IOException {
+        List<List<String>> records = readAll("sku,name\nA-1,\"Acetone, 99%\"\n");
+
+        assertEquals(List.of(List.of("sku", "name"), List.of("A-1", "Acetone, 99%")), records);
+    }
+
+    @Test
+    @DisplayName("Should unescape doubled quotes")
+    void testEscapedQuotes() throws IOException {
+        List<List<String>> records = readAll("\"2\"\" pipe\",\"\"\"quoted\"\"\",\"\"\n");
+
+        assertEquals(List.of(List.of("2\" pipe", "\"quoted\"", "")), records);
+    }
+
+    @Test
+    @DisplayName("Should keep line breaks inside quoted fields in one record")
+    void testEmbeddedNewline() throws IOException {
+        List<List<String>> records = readAll("A-1,\"line one\nline two\r\nline three\",5\nB-2,x,6\n");
+
+        assertEquals(2, records.size());
+        assertEquals(List.of("A-1", "line one\nline two\r\nline three", "5"), records.get(0));
+        assertEquals(List.of("B-2", "x", "6"), records.get(1));
+    }
+
+    @Test
+    @DisplayName("Should split CRLF, LF and bare CR records alike, with or without a final line break")
+    void testLineEndings() throws IOException {
+        List<List<String>> expected = List.of(List.of("a", "b"), List.of("c", "d"));
+
+        assertEquals(expected, readAll("a,b\r\nc,d\r\n"));
+        assertEquals(expected, readAll("a,b\nc,d"));
+        assertEquals(expected, readAll("a,b\rc,d\r"));
+    }
+
+    @Test
+    @DisplayName("Should return a trailing empty line as a single empty field, then end")
+    void testTrailingEmptyLine() throws IOException {
+        List<List<String>> records = readAll("a,b\r\n\r\n");
+
+        assertEquals(List.of(List.of("a", "b"), List.of("")), records);
+        assertTrue(readAll("").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep empty fields, including a trailing one")
+    void testEmptyFields() throws IOException {
+        assertEquals(List.of(List.of("", "x", "")), readAll(",x,\n"));
+    }
+
+    @Test
+    @DisplayName("Should fail on an unterminated quoted field")
+    void testUnterminatedQuote() {
+        assertThrows(IOException.class, () -> readAll("a,\"open\n"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.anode.storage.service;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.anode.storage.entity.safety.IncompatibilityRule;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Incompatibility Matrix Tests")
+class IncompatibilityMatrixTest {
+
+    private static IncompatibilityRule rule(int a, int b, String reason) {
+        IncompatibilityRule rule = new IncompatibilityRule();
+        rule.setHazardClassA(a);
+        rule.setHazardClassB(b);
+        rule.setReason(reason);
+        return rule;
+    }
+
+    @Test
+    @DisplayName("Should report a rule in both directions")
+    void testSymmetric() {
+        IncompatibilityMatrix matrix = IncompatibilityMatrix.of(List.of(rule(2, 70, "Oxidizer vs flammable")));
+
+        assertTrue(matrix.incompatible(2, 70));
+        assertTrue(matrix.incompatible(70, 2));
+        assertEquals("Oxidizer vs flammable", matrix.reason(70, 2).orElseThrow());
+        assertFalse(matrix.incompatible(2, 2));
+        assertFalse(matrix.incompatible(2, 69));
+    }
+
+    @Test
+    @DisplayName("Should treat unknown or out-of-range classes as compatible")
+    void testOutOfRange() {
+        IncompatibilityMatrix matrix = IncompatibilityMatrix.of(List.of(rule(1, 3, "x")));
+
+        assertFalse(matrix.incompatible(1, 500));
+        assertFalse(matrix.incompatible(-1, 3));
+        assertTrue(matrix.reason(4, 1).isEmpty());
+        assertFalse(IncompatibilityMatrix.EMPTY.incompatible(1, 3));
+    }
+
+    @Test
+    @DisplayName("Should keep pairs separate across 64-bit word boundaries")
+    void testWordBoundaries() {
+        IncompatibilityMatrix matrix = IncompatibilityMatrix.of(List.of(
+            rule(63, 64, "a"),
+            rule(0, 128, "b"),
+            rule(5, 5, "self")));
+
+        assertTrue(matrix.incompatible(64, 63));
+        assertTrue(matrix.incompatible(128, 0));
+        assertTrue(matrix.incompatible(5, 5));
+        assertFalse(matrix.incompatible(63, 63));
+        assertFalse(matrix.incompatible(0, 64));
+        assertFalse(matrix.incompatible(0, 0));
+        assertEquals(3, matrix.ruleCount());
+    }
+
+    @Test
+    @DisplayName("Should size the matrix by the classes in rules, not by their ids")
+    void testSparseIds() {
+        IncompatibilityMatrix matrix = IncompatibilityMatrix.of(List.of(
+            rule(7, 2_000_000_000, "far"),
+            rule(2_000_000_000, 1_500_000_000, "farther")));
+
+        assertTrue(matrix.incompatible(2_000_000_000, 7));
+        assertEquals("farther", matrix.reason(1_500_000_000, 2_000_000_000).orElseThrow());
+        assertFalse(matrix.incompatible(7, 1_500_000_000));
+        assertFalse(matrix.incompatible(7, 8));
+    }
+
+    @Test
+    @DisplayName("Should skip rules missing a hazard class")
+    void testIncompleteRule() {
+        IncompatibilityRule incomplete = new IncompatibilityRule();
+        incomplete.setHazardClassA(1);
+
+        IncompatibilityMatrix matrix = IncompatibilityMatrix.of(List.of(incomplete, rule(1, 2, "ok")));
+
+        assertEquals(1, matrix.ruleCount());
+        assertTrue(matrix.incompatible(2, 1));
+    }
+}
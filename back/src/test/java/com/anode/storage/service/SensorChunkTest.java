@@ -0,0 +1,68 @@
+package com.anode.storage.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Sensor Chunk Tests")
+class SensorChunkTest {
+
+    private static List<double[]> decode(SensorChunk chunk) {
+        List<double[]> points = new ArrayList<>();
+        chunk.decode((millis, temperature, humidity) -> points.add(new double[] {millis, temperature, humidity}));
+        return points;
+    }
+
+    @Test
+    @DisplayName("Should round-trip jittered timestamps and noisy values")
+    void testRoundTrip() {
+        Random random = new Random(42);
+        SensorChunk chunk = new SensorChunk();
+        List<double[]> expected = new ArrayList<>();
+        long millis = 1_700_000_000_000L;
+        double temperature = 4.0;
+        for (int i = 0; i < 1000; i++) {
+            // Mostly a steady 10 s cadence, with jitter and the occasional long gap
+            millis += i % 97 == 0 ? 600_000 : 10_000 + random.nextInt(400) - 200;
+            temperature = Math.round((temperature + random.nextGaussian() * 0.1) * 10) / 10.0;
+            double humidity = i % 10 == 0 ? 55.5 + random.nextDouble() : 55.5;
+            chunk.append(millis, temperature, humidity);
+            expected.add(new double[] {millis, temperature, humidity});
+        }
+        chunk.seal();
+
+        List<double[]> actual = decode(chunk);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), "point " + i);
+        }
+        // 3 raw doubles per point would be 24 bytes
+        assertTrue(chunk.sizeBytes() < expected.size() * 12L, "chunk takes " + chunk.sizeBytes() + " bytes");
+    }
+
+    @Test
+    @DisplayName("Should keep missing values and extremes")
+    void testMissingAndExtremeValues() {
+        SensorChunk chunk = new SensorChunk();
+        chunk.append(0, Double.NaN, 50.0);
+        chunk.append(1000, -80.0, Double.NaN);
+        chunk.append(1000, Double.MAX_VALUE, -0.0);
+        chunk.append(Integer.MAX_VALUE, Double.MIN_VALUE, 0.0);
+
+        List<double[]> points = decode(chunk);
+        assertEquals(4, points.size());
+        assertTrue(Double.isNaN(points.get(0)[1]));
+        assertEquals(-80.0, points.get(1)[1]);
+        assertTrue(Double.isNaN(points.get(1)[2]));
+        assertEquals(1000, (long) points.get(2)[0]);
+        assertEquals(Double.MAX_VALUE, points.get(2)[1]);
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(points.get(2)[2]));
+        assertEquals(Integer.MAX_VALUE, (long) points.get(3)[0]);
+        assertEquals(Double.MIN_VALUE, points.get(3)[1]);
+    }
+}
@@ -0,0 +1,145 @@
+package com.anode.storage.service;
+
+import com.anode.storage.entity.core.InventoryInfo;
+import com.anode.storage.entity.core.ItemStatus;
+import com.anode.storage.entity.core.ProductType;
+import com.anode.storage.entity.core.StorageItem;
+import com.anode.storage.entity.core.StorageReference;
+import com.anode.storage.repository.ReferenceStockSummaryRepository;
+import com.anode.storage.repository.StorageItemRepository;
+import com.anode.storage.repository.StorageReferenceRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Concurrent Stock Mutation Tests")
+class StockConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private StorageItemService itemService;
+
+    @Autowired
+    private StorageItemRepository itemRepository;
+
+    @Autowired
+    private StorageReferenceRepository referenceRepository;
+
+    @Autowired
+    private ReferenceStockSummaryRepository summaryRepository;
+
+    @Test
+    @DisplayName("Should not lose any removal when many threads consume the same batch")
+    void testConcurrentRemovalsAreNotLost() throws Exception {
+        StorageItem item = createItem(1000.0);
+        AtomicInteger failures = new AtomicInteger();
+
+        runConcurrently(800, () -> {
+            try {
+                itemService.removeStock(item.getId(), 1.0);
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+            }
+        });
+
+        StorageItem reloaded = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals(0, failures.get(), "No removal should fail while stock is sufficient");
+        assertEquals(200.0, reloaded.getInventoryInfo().getQuantity(), 1e-9);
+        assertEquals(item.getVersion() + 800, reloaded.getVersion(), "Every mutation should bump the version");
+        assertEquals(200.0, summaryRepository.findById(item.getReference().getId()).orElseThrow()
+            .getAvailableQuantity(), 1e-9, "Reference summary should track the batch exactly");
+    }
+
+    @Test
+    @DisplayName("Should never consume more than the available quantity")
+    void testConcurrentRemovalsCannotOverdraw() throws Exception {
+        StorageItem item = createItem(100.0);
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger rejections = new AtomicInteger();
+
+        runConcurrently(250, () -> {
+            try {
+                itemService.removeStock(item.getId(), 1.0);
+                successes.incrementAndGet();
+            } catch (RuntimeException e) {
+                rejections.incrementAndGet();
+            }
+        });
+
+        StorageItem reloaded = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals(100, successes.get());
+        assertEquals(150, rejections.get());
+        assertEquals(0.0, reloaded.getInventoryInfo().getQuantity(), 1e-9);
+        assertEquals(ItemStatus.EMPTY, reloaded.getStatus(), "Depleted batch should be marked empty");
+    }
+
+    @Test
+    @DisplayName("Should apply interleaved additions and removals exactly")
+    void testInterleavedAddAndRemove() throws Exception {
+        StorageItem item = createItem(500.0);
+        AtomicInteger counter = new AtomicInteger();
+
+        runConcurrently(600, () -> {
+            if (counter.incrementAndGet() % 2 == 0) {
+                itemService.addStock(item.getId(), 2.0);
+            } else {
+                itemService.removeStock(item.getId(), 1.0);
+            }
+        });
+
+        StorageItem reloaded = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals(500.0 + 300 * 2.0 - 300 * 1.0, reloaded.getInventoryInfo().getQuantity(), 1e-9);
+    }
+
+    private StorageItem createItem(double quantity) {
+        StorageReference reference = new StorageReference();
+        reference.setName("Resistor 10k");
+        reference.setProductType(ProductType.ELECTRICAL);
+        reference = referenceRepository.save(reference);
+
+        StorageItem item = new StorageItem();
+        item.setReference(reference);
+        InventoryInfo inventory = new InventoryInfo();
+        inventory.setQuantity(quantity);
+        inventory.setUnit("pcs");
+        item.setInventoryInfo(inventory);
+        return itemService.create(item);
+    }
+
+    private void runConcurrently(int tasks, Runnable task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < tasks; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.anode.storage.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Temperature Range Tests")
+class TemperatureRangeTest {
+
+    private static TemperatureRange parse(String text) {
+        return TemperatureRange.parse(text).orElseThrow(() -> new AssertionError("Not parsed: " + text));
+    }
+
+    @Test
+    @DisplayName("Should parse closed ranges")
+    void testClosedRanges() {
+        TemperatureRange fridge = parse("2-8°C");
+        assertEquals(2.0, fridge.getMin());
+        assertEquals(8.0, fridge.getMax());
+
+        TemperatureRange deepFreeze = parse("-80..-60");
+        assertEquals(-80.0, deepFreeze.getMin());
+        assertEquals(-60.0, deepFreeze.getMax());
+
+        TemperatureRange spaced = parse("15 to 25 C");
+        assertEquals(15.0, spaced.getMin());
+        assertEquals(25.0, spaced.getMax());
+    }
+
+    @Test
+    @DisplayName("Should parse open bounds and set points")
+    void testOpenBounds() {
+        assertNull(parse("< 25°C").getMin());
+        assertEquals(25.0, parse("< 25°C").getMax());
+        assertEquals(2.0, parse("> 2").getMin());
+        assertNull(parse("> 2").getMax());
+
+        TemperatureRange freezer = parse("-20°C");
+        assertNull(freezer.getMin());
+        assertEquals(-20.0, freezer.getMax());
+    }
+
+    @Test
+    @DisplayName("Should convert Fahrenheit and recognise room temperature")
+    void testFahrenheitAndRoomTemperature() {
+        TemperatureRange range = parse("36-46 °F");
+        assertEquals(2.22, range.getMin(), 0.01);
+        assertEquals(7.78, range.getMax(), 0.01);
+
+        TemperatureRange room = parse("Room temperature");
+        assertEquals(15.0, room.getMin());
+        assertEquals(25.0, room.getMax());
+    }
+
+    @Test
+    @DisplayName("Should reject text without a temperature")
+    void testUnparseable() {
+        assertTrue(TemperatureRange.parse("cool and dry").isEmpty());
+        assertTrue(TemperatureRange.parse(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should apply the hysteresis margin on closed sides only")
+    void testWellInside() {
+        TemperatureRange fridge = parse("2-8");
+        assertTrue(fridge.isAbove(8.1));
+        assertFalse(fridge.isWellInside(7.8, 0.5));
+        assertTrue(fridge.isWellInside(7.5, 0.5));
+        assertTrue(parse("< 25").isWellInside(-40, 0.5));
+    }
+}
@@ -0,0 +1,80 @@
+package com.anode.storage.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Timing Wheel Tests")
+class TimingWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final long TICK = 1000;
+
+    @Test
+    @DisplayName("Should fire entries across levels in deadline order, never early")
+    void testFiresInOrder() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, 60, START);
+        // Within the first level, one level up, and several levels up
+        long[] deadlines = {START + 5_000, START + 59_000, START + 61_500, START + 3_600_000, START + 7L * 86_400_000};
+        for (int i = deadlines.length - 1; i >= 0; i--) {
+            assertTrue(wheel.add(deadlines[i], i));
+        }
+
+        List<Integer> fired = new ArrayList<>();
+        long now = START;
+        while (fired.size() < deadlines.length) {
+            now += 500;
+            long at = now;
+            wheel.advance(now, (value, deadline) -> {
+                assertEquals(deadlines[value], deadline);
+                assertTrue(deadline <= at, "fired early");
+                assertTrue(at - deadline <= TICK, "fired more than a tick late");
+                fired.add(value);
+            });
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4), fired);
+    }
+
+    @Test
+    @DisplayName("Should refuse deadlines that have already passed")
+    void testRejectsPastDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 60, START);
+        wheel.advance(START + 10_000, (value, deadline) -> fail("nothing scheduled"));
+
+        assertFalse(wheel.add(START + 5_000, "past"));
+        assertTrue(wheel.add(START + 10_000, "current tick"));
+    }
+
+    @Test
+    @DisplayName("Should fire every entry exactly once when the clock moves in uneven steps")
+    void testUnevenAdvance() {
+        Random random = new Random(7);
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, 8, START);
+        Map<Integer, Long> pending = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            long deadline = START + (long) (random.nextDouble() * 3_600_000);
+            assertTrue(wheel.add(deadline, i));
+            pending.put(i, deadline);
+        }
+
+        long now = START;
+        while (now < START + 3_700_000) {
+            now += 1 + random.nextInt(random.nextInt(50) == 0 ? 120_000 : 3_000);
+            long at = now;
+            wheel.advance(now, (value, deadline) -> {
+                Long expected = pending.remove(value);
+                assertNotNull(expected, "fired twice");
+                assertEquals(expected.longValue(), deadline);
+                assertTrue(deadline <= at, "fired early");
+            });
+        }
+        assertTrue(pending.isEmpty());
+    }
+}